@@ -0,0 +1,83 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import entities.Account;
+import utils.AccountRegistry;
+
+public class AccountRegistryBenchmark {
+    private static final int[] ACCOUNT_COUNTS = {1_000, 10_000, 100_000, 500_000};
+    private static final int LOOKUPS = 200_000;
+    private static final int LINEAR_SCAN_LIMIT = 100_000;
+
+    public static void main(String[] args) {
+        System.out.println("accounts\tregistry ns/lookup\tlinear scan ns/lookup");
+        for (int accountCount : ACCOUNT_COUNTS) {
+            List<Account> accountList = createAccounts(accountCount);
+            AccountRegistry registry = new AccountRegistry(accountList);
+            String[] keys = randomKeys(accountCount, LOOKUPS, new Random(42));
+
+            measureRegistry(registry, keys);
+            double registryNanos = measureRegistry(registry, keys);
+
+            String linearResult = "skipped";
+            if (accountCount <= LINEAR_SCAN_LIMIT) {
+                int linearLookups = Math.max(100, LOOKUPS / (accountCount / 100));
+                String[] linearKeys = randomKeys(accountCount, linearLookups, new Random(7));
+                linearResult = String.format("%.1f", measureLinearScan(accountList, linearKeys));
+            }
+            System.out.println(accountCount + "\t" + String.format("%.1f", registryNanos) + "\t" + linearResult);
+        }
+    }
+
+    private static List<Account> createAccounts(int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(new Account("RO" + i, "Owner " + i, 1000));
+        }
+        return accounts;
+    }
+
+    private static String[] randomKeys(int accountCount, int lookups, Random random) {
+        String[] keys = new String[lookups];
+        for (int i = 0; i < lookups; i++) {
+            keys[i] = "RO" + random.nextInt(accountCount);
+        }
+        return keys;
+    }
+
+    private static double measureRegistry(AccountRegistry registry, String[] keys) {
+        long found = 0;
+        long start = System.nanoTime();
+        for (String key : keys) {
+            if (registry.findAccountByNumber(key) != null) {
+                found++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (found != keys.length) {
+            throw new IllegalStateException("Registry lookup missed accounts.");
+        }
+        return (double) elapsed / keys.length;
+    }
+
+    private static double measureLinearScan(List<Account> accounts, String[] keys) {
+        long found = 0;
+        long start = System.nanoTime();
+        for (String key : keys) {
+            for (Account account : accounts) {
+                if (account.getAccountNo().equals(key)) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (found != keys.length) {
+            throw new IllegalStateException("Linear scan missed accounts.");
+        }
+        return (double) elapsed / keys.length;
+    }
+}
@@ -0,0 +1,145 @@
+package benchmarks;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import entities.Transaction;
+import entities.TransactionId;
+import utils.AccountDictionary;
+import utils.OffHeapChunkStore;
+import utils.TransactionLog;
+import utils.TransactionType;
+
+public class ColumnarStoreBenchmark {
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final long FROM = 1_700_000_000_000L;
+    private static final long SPAN = 90L * 24 * 3600 * 1000;
+    private static final int HOT_CHUNKS = 16;
+
+    public static void main(String[] args) {
+        int transactionCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int accountCount = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        long listBytes = measureBytes(() -> {
+            List<Transaction> transactions = new ArrayList<>();
+            fill(transactions, transactionCount, accountCount);
+            return transactions;
+        });
+        long logBytes = measureBytes(() -> {
+            TransactionLog transactions = new TransactionLog();
+            fill(transactions, transactionCount, accountCount);
+            return transactions;
+        });
+        long offHeapBytes = measureBytes(() -> {
+            TransactionLog transactions = offHeapLog();
+            fill(transactions, transactionCount, accountCount);
+            return transactions;
+        });
+        System.out.println("store\theap bytes/transaction");
+        System.out.printf("ArrayList<Transaction>\t%.1f%n", (double) listBytes / transactionCount);
+        System.out.printf("TransactionLog\t%.1f%n", (double) logBytes / transactionCount);
+        System.out.printf("TransactionLog off-heap\t%.1f%n", (double) offHeapBytes / transactionCount);
+
+        List<Transaction> list = new ArrayList<>();
+        fill(list, transactionCount, accountCount);
+        TransactionLog log = new TransactionLog();
+        fill(log, transactionCount, accountCount);
+        TransactionLog offHeapLog = offHeapLog();
+        fill(offHeapLog, transactionCount, accountCount);
+        long cutoff = FROM + SPAN / 2;
+
+        System.out.println();
+        System.out.println("scan\tbest ms\ttransactions/s");
+        report("ArrayList<Transaction> getters", rounds, transactionCount, () -> {
+            double[] volumes = new double[TYPES.length];
+            for (Transaction transaction : list) {
+                if (transaction.getDate().getTime() >= cutoff) {
+                    volumes[transaction.getType().ordinal()] += transaction.getAmount();
+                }
+            }
+            return Arrays.stream(volumes).sum();
+        });
+        report("TransactionLog cursor", rounds, transactionCount, () -> {
+            double[] volumes = new double[TYPES.length];
+            TransactionLog.Cursor cursor = log.cursor();
+            while (cursor.next()) {
+                if (cursor.getTimestampMillis() >= cutoff) {
+                    volumes[cursor.getType().ordinal()] += cursor.getAmount();
+                }
+            }
+            return Arrays.stream(volumes).sum();
+        });
+        report("TransactionLog off-heap cursor", rounds, transactionCount, () -> {
+            double[] volumes = new double[TYPES.length];
+            TransactionLog.Cursor cursor = offHeapLog.cursor();
+            while (cursor.next()) {
+                if (cursor.getTimestampMillis() >= cutoff) {
+                    volumes[cursor.getType().ordinal()] += cursor.getAmount();
+                }
+            }
+            return Arrays.stream(volumes).sum();
+        });
+        report("TransactionLog get(i)", rounds, transactionCount, () -> {
+            double[] volumes = new double[TYPES.length];
+            for (Transaction transaction : log) {
+                if (transaction.getDate().getTime() >= cutoff) {
+                    volumes[transaction.getType().ordinal()] += transaction.getAmount();
+                }
+            }
+            return Arrays.stream(volumes).sum();
+        });
+    }
+
+    private static TransactionLog offHeapLog() {
+        return new TransactionLog(new AccountDictionary(), OffHeapChunkStore.direct(TransactionLog.CHUNK_BYTES), HOT_CHUNKS);
+    }
+
+    private static void fill(List<Transaction> transactions, int transactionCount, int accountCount) {
+        Random random = new Random(42);
+        for (int i = 0; i < transactionCount; i++) {
+            TransactionId id = TransactionId.of(random.nextLong(), random.nextLong());
+            double amount = Math.round(random.nextDouble() * 100_000) / 100.0 + 0.01;
+            Date date = new Date(FROM + (long) (random.nextDouble() * SPAN));
+            TransactionType type = TYPES[random.nextInt(TYPES.length)];
+            String source = "RO" + random.nextInt(accountCount);
+            if (type == TransactionType.TRANSFER) {
+                transactions.add(new Transaction(id, amount, date, type, source, "RO" + random.nextInt(accountCount)));
+            } else {
+                transactions.add(new Transaction(id, amount, date, type, source));
+            }
+        }
+    }
+
+    private static void report(String name, int rounds, int transactionCount, Supplier<Double> scan) {
+        long best = Long.MAX_VALUE;
+        double checksum = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            checksum += scan.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%s\t%.1f\t%.0f\t(checksum %.2f)%n", name, best / 1e6, transactionCount / (best / 1e9), checksum / rounds);
+    }
+
+    private static long measureBytes(Supplier<Object> allocation) {
+        long before = usedHeap();
+        Object retained = allocation.get();
+        long after = usedHeap();
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
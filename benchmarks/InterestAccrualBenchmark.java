@@ -0,0 +1,83 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import engine.InterestAccrual;
+import engine.TransactionEngine;
+import entities.Account;
+import metrics.LatencyHistogram;
+import utils.AccountRegistry;
+import utils.InterestTiers;
+import utils.RollingStatistics;
+import utils.TransactionJournal;
+import utils.TransactionLog;
+import utils.TransactionMatrix;
+import utils.TransactionStatistics;
+
+public class InterestAccrualBenchmark {
+    private static final InterestTiers TIERS = InterestTiers.parse("0:0.0005,10000:0.001,100000:0.0015");
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        boolean journaled = args.length > 1 && Boolean.parseBoolean(args[1]);
+
+        Random random = new Random(42);
+        List<Account> accountList = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            accountList.add(new Account(WorkloadGenerator.accountNo(i), "Owner " + i, Math.round(random.nextDouble() * 20_000_000) / 100.0));
+        }
+        AccountRegistry accounts = new AccountRegistry(accountList);
+        TransactionEngine engine = new TransactionEngine(accounts, new TransactionLog(), new TransactionStatistics(1000, false),
+                new RollingStatistics(), new TransactionMatrix(accounts));
+        Path journalFile = Files.createTempFile("interest", ".journal");
+        TransactionJournal journal = null;
+        if (journaled) {
+            journal = new TransactionJournal(journalFile.toString(), 64, 200);
+            engine.setJournal(journal);
+        }
+
+        LatencyHistogram idleLatency = measureDeposits(engine, accountCount, 200_000);
+        AtomicBoolean running = new AtomicBoolean(true);
+        LatencyHistogram busyLatency = new LatencyHistogram();
+        Thread traffic = new Thread(() -> {
+            Random trafficRandom = new Random(7);
+            while (running.get()) {
+                long start = System.nanoTime();
+                engine.deposit(WorkloadGenerator.accountNo(trafficRandom.nextInt(accountCount)), 10);
+                busyLatency.recordSince(start);
+            }
+        });
+        traffic.start();
+        InterestAccrual.Result result = engine.accrueInterest(TIERS);
+        running.set(false);
+        traffic.join();
+
+        System.out.printf("accrual: %d accounts, %d credited, %d recomputed after concurrent deposits, %.1f ms (%s journal)%n",
+                result.getAccountCount(), result.getCreditedCount(), result.getRecomputedCount(), result.getElapsedNanos() / 1e6,
+                journaled ? "with" : "without");
+        System.out.printf("deposit latency idle:    p50 %.1f us, p99 %.1f us%n", idleLatency.getPercentileNanos(50) / 1e3, idleLatency.getPercentileNanos(99) / 1e3);
+        System.out.printf("deposit latency accrual: p50 %.1f us, p99 %.1f us (%d deposits)%n", busyLatency.getPercentileNanos(50) / 1e3,
+                busyLatency.getPercentileNanos(99) / 1e3, busyLatency.getCount());
+        if (journal != null) {
+            journal.close();
+        }
+        Files.deleteIfExists(journalFile);
+    }
+
+    private static LatencyHistogram measureDeposits(TransactionEngine engine, int accountCount, int deposits) {
+        LatencyHistogram latency = new LatencyHistogram();
+        Random random = new Random(3);
+        for (int i = 0; i < deposits; i++) {
+            long start = System.nanoTime();
+            engine.deposit(WorkloadGenerator.accountNo(random.nextInt(accountCount)), 10);
+            latency.recordSince(start);
+        }
+        return latency;
+    }
+}
@@ -0,0 +1,91 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import engine.TransactionEngine;
+import entities.Account;
+import utils.TransactionJournal;
+
+public class JournalRecoveryBenchmark {
+    private static final double INITIAL_BALANCE = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int operationsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println("threads\tcommitted\trecovered\trecovery ms\tbalances match");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            run(accountCount, threads, operationsPerThread);
+        }
+        if (Integer.bitCount(maxThreads) != 1) {
+            run(accountCount, maxThreads, operationsPerThread);
+        }
+    }
+
+    private static void run(int accountCount, int threadCount, int operationsPerThread) throws IOException, InterruptedException {
+        Path journalFile = Files.createTempFile("recovery", ".journal");
+        try {
+            TransactionEngine engine = TransactionEngine.inMemory();
+            TransactionJournal journal = new TransactionJournal(journalFile.toString(), 64, 200);
+            engine.setJournal(journal);
+            for (int i = 0; i < accountCount; i++) {
+                engine.createAccount("RO" + i, "Owner " + i, INITIAL_BALANCE);
+            }
+
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                threads.add(new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        String accountNo = "RO" + random.nextInt(accountCount);
+                        double amount = 1 + random.nextInt(200);
+                        switch (random.nextInt(3)) {
+                            case 0:
+                                engine.deposit(accountNo, amount);
+                                break;
+                            case 1:
+                                engine.withdraw(accountNo, amount);
+                                break;
+                            default:
+                                engine.transfer(accountNo, "RO" + random.nextInt(accountCount), amount);
+                                break;
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            journal.close();
+
+            TransactionEngine recovered = TransactionEngine.inMemory();
+            long start = System.nanoTime();
+            recovered.recoverFromJournal(journalFile.toString());
+            long elapsed = System.nanoTime() - start;
+
+            boolean matches = recovered.getTransactionLog().size() == engine.getTransactionLog().size();
+            for (Account account : engine.getAccounts().getAccounts()) {
+                Account recoveredAccount = recovered.findAccount(account.getAccountNo());
+                if (recoveredAccount == null || recoveredAccount.getBalance() != account.getBalance()) {
+                    matches = false;
+                }
+            }
+            System.out.println(threadCount + "\t" + engine.getTransactionLog().size() + "\t" + recovered.getTransactionLog().size() + "\t"
+                    + String.format("%.1f", elapsed / 1e6) + "\t" + matches);
+            if (!matches) {
+                throw new IllegalStateException("Journal recovery did not reproduce the live balances with " + threadCount + " threads.");
+            }
+        } finally {
+            Files.deleteIfExists(journalFile);
+        }
+    }
+}
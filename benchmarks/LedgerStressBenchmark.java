@@ -0,0 +1,127 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import entities.Account;
+import entities.Transaction;
+import exceptions.InsufficientFundsException;
+import utils.AccountRegistry;
+import utils.Ledger;
+import utils.TransactionLog;
+import utils.TransactionType;
+
+public class LedgerStressBenchmark {
+    private static final double INITIAL_BALANCE = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int operationsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        System.out.println("threads\ttransfers/s\tcommitted\trejected\tbalance conserved\treplay matches");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            run(accountCount, threads, operationsPerThread);
+        }
+        if (Integer.bitCount(maxThreads) != 1) {
+            run(accountCount, maxThreads, operationsPerThread);
+        }
+    }
+
+    private static void run(int accountCount, int threadCount, int operationsPerThread) throws InterruptedException {
+        List<Account> accounts = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(new Account("RO" + i, "Owner " + i, INITIAL_BALANCE));
+        }
+        TransactionLog transactionLog = new TransactionLog();
+        Ledger ledger = new Ledger(new AccountRegistry(accounts), transactionLog);
+        AtomicLong committed = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long localCommitted = 0;
+                long localRejected = 0;
+                for (int i = 0; i < operationsPerThread; i++) {
+                    int source = random.nextInt(accountCount);
+                    int destination = random.nextInt(accountCount - 1);
+                    if (destination >= source) {
+                        destination++;
+                    }
+                    try {
+                        ledger.transfer("RO" + source, "RO" + destination, 1 + random.nextInt(200));
+                        localCommitted++;
+                    } catch (InsufficientFundsException e) {
+                        localRejected++;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                committed.addAndGet(localCommitted);
+                rejected.addAndGet(localRejected);
+            }));
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double total = 0;
+        for (Account account : accounts) {
+            total += account.getBalance();
+        }
+        boolean conserved = Math.abs(total - INITIAL_BALANCE * accountCount) < 1e-6
+                && transactionLog.size() == committed.get()
+                && allTransfers(transactionLog);
+        boolean replayMatches = replayMatches(accounts, transactionLog);
+        double throughput = (committed.get() + rejected.get()) * 1e9 / elapsed;
+        System.out.println(threadCount + "\t" + String.format("%.0f", throughput) + "\t" + committed.get() + "\t" + rejected.get() + "\t" + conserved + "\t" + replayMatches);
+        if (!conserved) {
+            throw new IllegalStateException("Ledger lost or created money with " + threadCount + " threads.");
+        }
+        if (!replayMatches) {
+            throw new IllegalStateException("Replaying the transaction log did not reproduce the balances with " + threadCount + " threads.");
+        }
+    }
+
+    private static boolean replayMatches(List<Account> accounts, TransactionLog transactionLog) {
+        List<Account> replayedAccounts = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            replayedAccounts.add(new Account(account.getAccountNo(), account.getOwner(), INITIAL_BALANCE));
+        }
+        AccountRegistry registry = new AccountRegistry(replayedAccounts);
+        Ledger replayLedger = new Ledger(registry, new TransactionLog());
+        for (Transaction transaction : transactionLog) {
+            try {
+                replayLedger.replay(transaction);
+            } catch (Exception e) {
+                System.out.println("Error: Transaction " + transaction.getTransactionId() + " could not be replayed: " + e.getMessage());
+                return false;
+            }
+        }
+        for (Account account : accounts) {
+            if (registry.findAccountByNumber(account.getAccountNo()).getBalance() != account.getBalance()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean allTransfers(TransactionLog transactionLog) {
+        for (Transaction transaction : transactionLog) {
+            if (transaction.getType() != TransactionType.TRANSFER) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
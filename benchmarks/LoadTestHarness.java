@@ -0,0 +1,155 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import engine.TransactionEngine;
+import engine.TransactionResult;
+import entities.Account;
+import utils.QuantileSketch;
+import utils.TransactionType;
+
+public class LoadTestHarness {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.out.println("Usage: LoadTestHarness <accounts> <targetOpsPerSecond|0> <maxThreads> <seconds> [skew=1.1] [mix=40:30:30]");
+            return;
+        }
+        int accountCount = Integer.parseInt(args[0]);
+        int targetRate = Integer.parseInt(args[1]);
+        int maxThreads = Integer.parseInt(args[2]);
+        int seconds = Integer.parseInt(args[3]);
+        double skew = args.length > 4 ? Double.parseDouble(args[4]) : 1.1;
+        String mix = args.length > 5 ? args[5] : "40:30:30";
+
+        WorkloadGenerator generator = new WorkloadGenerator(accountCount, skew, mix, 42);
+        System.out.println("accounts=" + accountCount + " target=" + (targetRate == 0 ? "unthrottled" : targetRate + " ops/s") + " skew=" + skew + " mix=" + mix);
+        System.out.println("threads\tops/s\tcommitted\trejected\tp50 us\tp90 us\tp99 us\tp99.9 us\tmax us");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            run(generator, threads, targetRate, seconds);
+        }
+        if (Integer.bitCount(maxThreads) != 1) {
+            run(generator, maxThreads, targetRate, seconds);
+        }
+    }
+
+    private static void run(WorkloadGenerator generator, int threadCount, int targetRate, int seconds) throws InterruptedException {
+        TransactionEngine engine = TransactionEngine.inMemory();
+        for (Account account : generator.createAccounts(new Random(7))) {
+            engine.createAccount(account.getAccountNo(), account.getOwner(), account.getBalance());
+        }
+
+        long intervalNanos = targetRate == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) * threadCount / targetRate;
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        long endNanos = startNanos + TimeUnit.SECONDS.toNanos(seconds);
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            Worker worker = new Worker(engine, generator, new Random(1000 + t), intervalNanos, startNanos + intervalNanos * t / threadCount, endNanos);
+            workers.add(worker);
+            threads.add(new Thread(worker, "load-" + t));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        QuantileSketch latencies = new QuantileSketch();
+        long committed = 0;
+        long rejected = 0;
+        long maxNanos = 0;
+        Map<String, Long> failures = new TreeMap<>();
+        for (Worker worker : workers) {
+            latencies.merge(worker.latencies);
+            committed += worker.committed;
+            rejected += worker.rejected;
+            maxNanos = Math.max(maxNanos, worker.maxNanos);
+            worker.failures.forEach((name, count) -> failures.merge(name, count, Long::sum));
+        }
+        double elapsedSeconds = (endNanos - startNanos) / 1e9;
+        StringBuilder line = new StringBuilder();
+        line.append(threadCount).append('\t').append(Math.round((committed + rejected) / elapsedSeconds))
+                .append('\t').append(committed).append('\t').append(rejected);
+        for (double quantile : QUANTILES) {
+            line.append('\t').append(String.format("%.1f", latencies.getQuantile(quantile) / 1000));
+        }
+        line.append('\t').append(String.format("%.1f", maxNanos / 1000.0));
+        System.out.println(line);
+        if (!failures.isEmpty()) {
+            System.out.println("\trejections by cause: " + failures);
+        }
+    }
+
+    private static class Worker implements Runnable {
+        private final TransactionEngine engine;
+        private final WorkloadGenerator generator;
+        private final Random random;
+        private final long intervalNanos;
+        private final long firstNanos;
+        private final long endNanos;
+        private final QuantileSketch latencies = new QuantileSketch();
+        private final Map<String, Long> failures = new TreeMap<>();
+        private long committed;
+        private long rejected;
+        private long maxNanos;
+
+        Worker(TransactionEngine engine, WorkloadGenerator generator, Random random, long intervalNanos, long firstNanos, long endNanos) {
+            this.engine = engine;
+            this.generator = generator;
+            this.random = random;
+            this.intervalNanos = intervalNanos;
+            this.firstNanos = firstNanos;
+            this.endNanos = endNanos;
+        }
+
+        @Override
+        public void run() {
+            long intendedNanos = firstNanos;
+            while (true) {
+                long now = System.nanoTime();
+                if (intervalNanos > 0 && now < intendedNanos) {
+                    LockSupport.parkNanos(intendedNanos - now);
+                    now = System.nanoTime();
+                }
+                if (now >= endNanos) {
+                    return;
+                }
+                long startNanos = intervalNanos > 0 ? intendedNanos : now;
+                TransactionResult result = execute();
+                long latencyNanos = System.nanoTime() - startNanos;
+                latencies.add(latencyNanos);
+                maxNanos = Math.max(maxNanos, latencyNanos);
+                if (result.isSuccessful()) {
+                    committed++;
+                } else {
+                    rejected++;
+                    failures.merge(result.getError().getClass().getSimpleName(), 1L, Long::sum);
+                }
+                intendedNanos += intervalNanos;
+            }
+        }
+
+        private TransactionResult execute() {
+            String source = generator.nextAccountNo(random);
+            double amount = generator.nextAmount(random);
+            TransactionType type = generator.nextType(random);
+            switch (type) {
+                case DEPOSIT:
+                    return engine.deposit(source, amount);
+                case WITHDRAWAL:
+                    return engine.withdraw(source, amount);
+                default:
+                    return engine.transfer(source, generator.nextCounterpartyNo(random, source), amount);
+            }
+        }
+    }
+}
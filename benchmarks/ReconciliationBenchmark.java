@@ -0,0 +1,111 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import entities.Account;
+import entities.Transaction;
+import utils.AccountRegistry;
+import utils.ReconciliationEngine;
+import utils.ReconciliationReport;
+import utils.TransactionLog;
+import utils.TransactionMatrix;
+import utils.TransactionStatistics;
+
+public class ReconciliationBenchmark {
+    private static final long FROM = 1_700_000_000_000L;
+    private static final long SPAN = 365L * 24 * 3600 * 1000;
+
+    public static void main(String[] args) throws IOException {
+        int transactionCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int accountCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        WorkloadGenerator generator = new WorkloadGenerator(accountCount, 1.1, "40:30:30", 42);
+        Random random = new Random(42);
+        List<Account> accountList = generator.createAccounts(random);
+        List<Transaction> list = generator.createTransactions(accountList, transactionCount, FROM, FROM + SPAN, random);
+        AccountRegistry accounts = new AccountRegistry(accountList);
+        TransactionLog log = new TransactionLog();
+        log.addAll(list);
+        TransactionStatistics statistics = new TransactionStatistics(0, false);
+        statistics.addTransactions(log.cursor());
+        TransactionMatrix matrix = new TransactionMatrix(accounts);
+        matrix.recordTransactions(log.cursor());
+        ReconciliationEngine.StoredState stored = ReconciliationEngine.capture(log, accounts, statistics, matrix);
+
+        System.out.println("reconciliation\tbest ms\ttransactions/s");
+        long best = Long.MAX_VALUE;
+        long mismatches = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            mismatches = serialReconcile(list, accountList, matrix);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        print("serial HashMap replay", best, transactionCount, mismatches, 1);
+
+        for (long passMegabytes : new long[] {8, 64, 512}) {
+            for (int parallelism = 1; parallelism <= Runtime.getRuntime().availableProcessors(); parallelism *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                ReconciliationEngine engine = new ReconciliationEngine(log, pool, passMegabytes << 20);
+                ReconciliationReport report = null;
+                best = Long.MAX_VALUE;
+                for (int round = 0; round < rounds; round++) {
+                    long start = System.nanoTime();
+                    report = engine.reconcile(stored, null);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                print("ReconciliationEngine, " + passMegabytes + " MB per pass, " + parallelism + " threads", best, transactionCount,
+                        report.getMismatchCount(), report.getPassCount());
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static long serialReconcile(List<Transaction> transactions, List<Account> accounts, TransactionMatrix matrix) {
+        Map<String, Double> netMovements = new HashMap<>();
+        Map<String, Map<String, Double>> cells = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            String source = transaction.getSourceAccountNo();
+            switch (transaction.getType()) {
+                case DEPOSIT:
+                case INTEREST:
+                    netMovements.merge(source, transaction.getAmount(), Double::sum);
+                    break;
+                case WITHDRAWAL:
+                    netMovements.merge(source, -transaction.getAmount(), Double::sum);
+                    break;
+                case TRANSFER:
+                    netMovements.merge(source, -transaction.getAmount(), Double::sum);
+                    netMovements.merge(transaction.getDestinationAccountNo(), transaction.getAmount(), Double::sum);
+                    cells.computeIfAbsent(source, accountNo -> new HashMap<>()).merge(transaction.getDestinationAccountNo(), transaction.getAmount(), Double::sum);
+                    break;
+                default:
+                    break;
+            }
+        }
+        long mismatches = 0;
+        for (Account account : accounts) {
+            double expected = account.getOpeningBalance() + netMovements.getOrDefault(account.getAccountNo(), 0.0);
+            if (Math.abs(expected - account.getBalance()) > 0.005) {
+                mismatches++;
+            }
+        }
+        for (Map.Entry<String, Map<String, Double>> row : cells.entrySet()) {
+            for (Map.Entry<String, Double> cell : row.getValue().entrySet()) {
+                if (Math.abs(matrix.getAmount(row.getKey(), cell.getKey()) - cell.getValue()) > 0.005) {
+                    mismatches++;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private static void print(String name, long bestNanos, int transactionCount, long mismatches, int passes) {
+        System.out.printf("%s\t%.1f\t%.0f\t(%d mismatches, %d passes)%n", name, bestNanos / 1e6, transactionCount / (bestNanos / 1e9), mismatches, passes);
+    }
+}
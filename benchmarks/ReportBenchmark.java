@@ -0,0 +1,109 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import entities.Account;
+import entities.Transaction;
+import utils.AccountRegistry;
+import utils.ReportEngine;
+import utils.TransactionLog;
+import utils.TransactionReport;
+import utils.TransactionType;
+
+public class ReportBenchmark {
+    private static final long FROM = 1_700_000_000_000L;
+    private static final long SPAN = 365L * 24 * 3600 * 1000;
+    private static final int TOP_ACCOUNTS = 10;
+
+    public static void main(String[] args) {
+        int transactionCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int accountCount = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        WorkloadGenerator generator = new WorkloadGenerator(accountCount, 1.1, "40:30:30", 42);
+        Random random = new Random(42);
+        List<Account> accountList = generator.createAccounts(random);
+        List<Transaction> list = generator.createTransactions(accountList, transactionCount, FROM, FROM + SPAN, random);
+        AccountRegistry accounts = new AccountRegistry(accountList);
+        TransactionLog log = new TransactionLog();
+        log.addAll(list);
+        ZoneId zone = ZoneId.systemDefault();
+
+        System.out.println("report\tbest ms\ttransactions/s");
+        double serialChecksum = 0;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            serialChecksum = serialReport(list, accounts, zone);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        print("serial List<Transaction> loop", best, transactionCount, serialChecksum);
+
+        for (int parallelism = 1; parallelism <= Runtime.getRuntime().availableProcessors(); parallelism *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            ReportEngine engine = new ReportEngine(log, accounts, pool, zone);
+            double checksum = 0;
+            best = Long.MAX_VALUE;
+            for (int round = 0; round < rounds; round++) {
+                long start = System.nanoTime();
+                checksum = checksum(engine.generate(TOP_ACCOUNTS));
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            print("ReportEngine, " + parallelism + " threads", best, transactionCount, checksum);
+            pool.shutdown();
+        }
+    }
+
+    private static double serialReport(List<Transaction> transactions, AccountRegistry accounts, ZoneId zone) {
+        Map<LocalDate, double[]> dailyVolumes = new HashMap<>();
+        Map<String, double[]> flows = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            LocalDate date = transaction.getDate().toInstant().atZone(zone).toLocalDate();
+            dailyVolumes.computeIfAbsent(date, day -> new double[TransactionType.values().length])[transaction.getType().ordinal()] += transaction.getAmount();
+            double[] source = flows.computeIfAbsent(transaction.getSourceAccountNo(), accountNo -> new double[2]);
+            switch (transaction.getType()) {
+                case DEPOSIT:
+                case INTEREST:
+                    source[0] += transaction.getAmount();
+                    break;
+                case WITHDRAWAL:
+                    source[1] += transaction.getAmount();
+                    break;
+                case TRANSFER:
+                    source[1] += transaction.getAmount();
+                    flows.computeIfAbsent(transaction.getDestinationAccountNo(), accountNo -> new double[2])[0] += transaction.getAmount();
+                    break;
+                default:
+                    break;
+            }
+        }
+        Map<String, double[]> owners = new HashMap<>();
+        double checksum = 0;
+        for (Account account : accounts) {
+            double[] flow = flows.getOrDefault(account.getAccountNo(), new double[2]);
+            double[] owner = owners.computeIfAbsent(account.getOwner(), name -> new double[2]);
+            owner[0] += flow[0];
+            owner[1] += flow[1];
+            checksum += flow[0] - flow[1];
+        }
+        return checksum + dailyVolumes.size() + owners.size();
+    }
+
+    private static double checksum(TransactionReport report) {
+        double checksum = 0;
+        for (TransactionReport.AccountTotals account : report.getAccountTotals()) {
+            checksum += account.getNetMovement();
+        }
+        return checksum + report.getDailyVolumes().size() + report.getOwnerTotals().size();
+    }
+
+    private static void print(String name, long bestNanos, int transactionCount, double checksum) {
+        System.out.printf("%s\t%.1f\t%.0f\t(checksum %.2f)%n", name, bestNanos / 1e6, transactionCount / (bestNanos / 1e9), checksum);
+    }
+}
@@ -0,0 +1,115 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import entities.Account;
+import entities.Transaction;
+import entities.TransactionId;
+import utils.AccountRegistry;
+import utils.BinarySnapshot;
+import utils.FileManager;
+import utils.JsonFormat;
+import utils.TransactionType;
+
+public class SnapshotLoadBenchmark {
+    private static final int ITERATIONS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int transactionCount = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+
+        Path directory = Files.createTempDirectory("snapshot-benchmark");
+        String accountsFile = directory.resolve("accounts.json").toString();
+        String transactionsFile = directory.resolve("transactions.json").toString();
+        String snapshotFile = directory.resolve("snapshot.bin").toString();
+
+        List<Account> accounts = createAccounts(accountCount);
+        List<Transaction> transactions = createTransactions(accountCount, transactionCount, new Random(42));
+        List<String> rows = new ArrayList<>();
+        for (JsonFormat format : JsonFormat.values()) {
+            long saveMillis = Long.MAX_VALUE;
+            long loadMillis = Long.MAX_VALUE;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                FileManager.saveAccountsToJSON(accounts, accountsFile, format);
+                FileManager.saveTransactionsToJSON(transactions, transactionsFile, format);
+                saveMillis = Math.min(saveMillis, (System.nanoTime() - start) / 1_000_000);
+
+                start = System.nanoTime();
+                AccountRegistry loadedAccounts = FileManager.loadAccountsFromJSON(accountsFile);
+                List<Transaction> loadedTransactions = FileManager.loadTransactionsFromJSON(transactionsFile, loadedAccounts);
+                loadMillis = Math.min(loadMillis, (System.nanoTime() - start) / 1_000_000);
+                checkCount(loadedTransactions.size(), transactionCount);
+            }
+            long jsonBytes = new File(accountsFile).length() + new File(transactionsFile).length();
+            rows.add("json " + format.name().toLowerCase() + "\t" + jsonBytes + "\t" + saveMillis + "\t" + loadMillis);
+        }
+
+        long saveMillis = Long.MAX_VALUE;
+        long loadMillis = Long.MAX_VALUE;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            BinarySnapshot.write(snapshotFile, accounts, transactions);
+            saveMillis = Math.min(saveMillis, (System.nanoTime() - start) / 1_000_000);
+
+            start = System.nanoTime();
+            BinarySnapshot snapshot = BinarySnapshot.load(snapshotFile);
+            loadMillis = Math.min(loadMillis, (System.nanoTime() - start) / 1_000_000);
+            checkCount(snapshot.getTransactions().size(), transactionCount);
+        }
+        rows.add("binary\t" + new File(snapshotFile).length() + "\t" + saveMillis + "\t" + loadMillis);
+
+        System.out.println();
+        System.out.println("accounts=" + accountCount + " transactions=" + transactionCount);
+        System.out.println("format\tbytes\tbest save ms\tbest load ms");
+        for (String row : rows) {
+            System.out.println(row);
+        }
+
+        for (File file : directory.toFile().listFiles()) {
+            file.delete();
+        }
+        directory.toFile().delete();
+    }
+
+    private static void checkCount(int actual, int expected) {
+        if (actual != expected) {
+            throw new IllegalStateException("Loaded " + actual + " transactions, expected " + expected);
+        }
+    }
+
+    static List<Account> createAccounts(int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(new Account("RO" + i, "Owner " + i, 1000));
+        }
+        return accounts;
+    }
+
+    static List<Transaction> createTransactions(int accountCount, int count, Random random) {
+        List<Transaction> transactions = new ArrayList<>(count);
+        TransactionType[] types = {TransactionType.DEPOSIT, TransactionType.WITHDRAWAL, TransactionType.TRANSFER};
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            TransactionType type = types[random.nextInt(types.length)];
+            TransactionId id = TransactionId.of(random.nextLong(), random.nextLong());
+            double amount = 1 + random.nextInt(100_000) / 100.0;
+            Date date = new Date(now - random.nextInt(365 * 24 * 3600) * 1000L);
+            String source = "RO" + random.nextInt(accountCount);
+            if (type == TransactionType.TRANSFER) {
+                String destination = "RO" + random.nextInt(accountCount);
+                transactions.add(new Transaction(id, amount, date, type, source, destination));
+            } else {
+                transactions.add(new Transaction(id, amount, date, type, source));
+            }
+        }
+        return transactions;
+    }
+}
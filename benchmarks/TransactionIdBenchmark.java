@@ -0,0 +1,122 @@
+package benchmarks;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import entities.TransactionId;
+import utils.RandomUuidGenerator;
+import utils.TimeOrderedIdGenerator;
+import utils.TransactionIdGenerator;
+
+public class TransactionIdBenchmark {
+    public static void main(String[] args) throws Exception {
+        int idsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int memoryIds = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+
+        System.out.println("generator\tthreads\tids/s\tmonotonic per thread");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            run("uuid-string", () -> () -> UUID.randomUUID().toString(), threads, idsPerThread, false);
+            RandomUuidGenerator random = new RandomUuidGenerator();
+            run("random-uuid", () -> random::nextId, threads, idsPerThread, false);
+            TimeOrderedIdGenerator timeOrdered = new TimeOrderedIdGenerator();
+            run("time-ordered", () -> timeOrdered::nextId, threads, idsPerThread, true);
+        }
+
+        System.out.println();
+        System.out.println("storage\tbytes/ID");
+        long stringBytes = measureBytes(() -> {
+            String[] ids = new String[memoryIds];
+            for (int i = 0; i < memoryIds; i++) {
+                ids[i] = UUID.randomUUID().toString();
+            }
+            return ids;
+        });
+        long longBytes = measureBytes(() -> {
+            TransactionIdGenerator generator = new TimeOrderedIdGenerator();
+            long[] ids = new long[memoryIds * 2];
+            for (int i = 0; i < memoryIds; i++) {
+                TransactionId id = generator.nextId();
+                ids[2 * i] = id.getHigh();
+                ids[2 * i + 1] = id.getLow();
+            }
+            return ids;
+        });
+        long stringSetBytes = measureBytes(() -> {
+            Set<String> ids = new HashSet<>();
+            for (int i = 0; i < memoryIds; i++) {
+                ids.add(UUID.randomUUID().toString());
+            }
+            return ids;
+        });
+        long idSetBytes = measureBytes(() -> {
+            TransactionIdGenerator generator = new TimeOrderedIdGenerator();
+            Set<TransactionId> ids = new HashSet<>();
+            for (int i = 0; i < memoryIds; i++) {
+                ids.add(generator.nextId());
+            }
+            return ids;
+        });
+        System.out.printf("String field\t%.1f%n", (double) stringBytes / memoryIds);
+        System.out.printf("two long fields\t%.1f%n", (double) longBytes / memoryIds);
+        System.out.printf("HashSet<String>\t%.1f%n", (double) stringSetBytes / memoryIds);
+        System.out.printf("HashSet<TransactionId>\t%.1f%n", (double) idSetBytes / memoryIds);
+    }
+
+    private static void run(String name, Supplier<Supplier<Object>> generatorFactory, int threadCount, int idsPerThread, boolean checkOrder)
+            throws InterruptedException {
+        Supplier<Object> generator = generatorFactory.get();
+        AtomicBoolean monotonic = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        long[] sinks = new long[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int index = t;
+            threads.add(new Thread(() -> {
+                long sink = 0;
+                Object previous = null;
+                for (int i = 0; i < idsPerThread; i++) {
+                    Object id = generator.get();
+                    sink += id.hashCode();
+                    if (checkOrder && previous != null && ((TransactionId) previous).compareTo((TransactionId) id) >= 0) {
+                        monotonic.set(false);
+                    }
+                    previous = id;
+                }
+                sinks[index] = sink;
+            }));
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        double idsPerSecond = (double) threadCount * idsPerThread / (elapsed / 1e9);
+        System.out.printf("%s\t%d\t%.0f\t%s%n", name, threadCount, idsPerSecond, checkOrder ? String.valueOf(monotonic.get()) : "-");
+    }
+
+    private static long measureBytes(Supplier<Object> allocation) {
+        long before = usedHeap();
+        Object retained = allocation.get();
+        long after = usedHeap();
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
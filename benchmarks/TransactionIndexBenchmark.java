@@ -0,0 +1,114 @@
+package benchmarks;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+import entities.Transaction;
+import entities.TransactionId;
+import utils.TransactionLog;
+import utils.TransactionType;
+
+public class TransactionIndexBenchmark {
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final long FROM = 1_700_000_000_000L;
+    private static final long SPAN = 90L * 24 * 3600 * 1000;
+    private static final long WINDOW = 3600L * 1000;
+    private static final int PAGE_SIZE = 20;
+
+    public static void main(String[] args) {
+        int transactionCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int accountCount = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        TransactionLog log = new TransactionLog();
+        long start = System.nanoTime();
+        fill(log, transactionCount, accountCount);
+        System.out.printf("loaded %d transactions with indexes in %.1f ms%n", transactionCount, (System.nanoTime() - start) / 1e6);
+
+        Random random = new Random(7);
+        String[] accountNos = new String[queries];
+        long[] windowStarts = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            accountNos[i] = "RO" + random.nextInt(accountCount);
+            windowStarts[i] = FROM + (long) (random.nextDouble() * (SPAN - WINDOW));
+        }
+
+        System.out.println();
+        System.out.println("query\tus/query\trows");
+        report("account history, index", queries, () -> {
+            int rows = 0;
+            for (String accountNo : accountNos) {
+                rows += log.findByAccount(accountNo, 0, PAGE_SIZE).getTransactions().size();
+            }
+            return rows;
+        });
+        report("account history, scan", queries, () -> {
+            int rows = 0;
+            for (String accountNo : accountNos) {
+                rows += scanAccount(log, accountNo);
+            }
+            return rows;
+        });
+        report("one hour range, index", queries, () -> {
+            int rows = 0;
+            for (long windowStart : windowStarts) {
+                rows += log.findBetween(new Date(windowStart), new Date(windowStart + WINDOW), 0, PAGE_SIZE).getTransactions().size();
+            }
+            return rows;
+        });
+        report("one hour range, scan", queries, () -> {
+            int rows = 0;
+            for (long windowStart : windowStarts) {
+                rows += scanRange(log, windowStart, windowStart + WINDOW);
+            }
+            return rows;
+        });
+    }
+
+    private static int scanAccount(TransactionLog log, String accountNo) {
+        int rows = 0;
+        TransactionLog.Cursor cursor = log.cursor();
+        while (cursor.next() && rows < PAGE_SIZE) {
+            if (accountNo.equals(cursor.getSourceAccountNo()) || accountNo.equals(cursor.getDestinationAccountNo())) {
+                cursor.toTransaction();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static int scanRange(TransactionLog log, long fromMillis, long toMillis) {
+        int rows = 0;
+        TransactionLog.Cursor cursor = log.cursor();
+        while (cursor.next() && rows < PAGE_SIZE) {
+            if (cursor.hasDate() && cursor.getTimestampMillis() >= fromMillis && cursor.getTimestampMillis() < toMillis) {
+                cursor.toTransaction();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void fill(TransactionLog transactions, int transactionCount, int accountCount) {
+        Random random = new Random(42);
+        for (int i = 0; i < transactionCount; i++) {
+            TransactionId id = TransactionId.of(random.nextLong(), random.nextLong());
+            double amount = Math.round(random.nextDouble() * 100_000) / 100.0 + 0.01;
+            Date date = new Date(FROM + (long) (random.nextDouble() * SPAN));
+            TransactionType type = TYPES[random.nextInt(TYPES.length)];
+            String source = "RO" + random.nextInt(accountCount);
+            if (type == TransactionType.TRANSFER) {
+                transactions.add(new Transaction(id, amount, date, type, source, "RO" + random.nextInt(accountCount)));
+            } else {
+                transactions.add(new Transaction(id, amount, date, type, source));
+            }
+        }
+    }
+
+    private static void report(String name, int queries, IntSupplier run) {
+        long start = System.nanoTime();
+        int rows = run.getAsInt();
+        System.out.printf("%s\t%.1f\t%d%n", name, (System.nanoTime() - start) / 1e3 / queries, rows);
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import utils.CsrMatrix;
+import utils.TransferGraph;
+
+public class TransferGraphBenchmark {
+    public static void main(String[] args) {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int transferCount = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        double skew = args.length > 2 ? Double.parseDouble(args[2]) : 0.8;
+
+        CsrMatrix matrix = randomMatrix(accountCount, transferCount, skew, new Random(42));
+        String[] accountNumbers = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accountNumbers[i] = WorkloadGenerator.accountNo(i);
+        }
+        System.out.printf("graph: %d accounts, %d edges%n", accountCount, matrix.getNonZeroCount());
+
+        long start = System.nanoTime();
+        TransferGraph graph = new TransferGraph(matrix, accountNumbers);
+        report("transpose + net flows", start);
+
+        start = System.nanoTime();
+        int[] receivers = graph.getLargestNetReceivers(10);
+        report("top 10 net receivers", start);
+
+        start = System.nanoTime();
+        List<TransferGraph.Counterparty> counterparties = graph.getTopCounterparties(graph.getAccountNo(receivers[0]), 10);
+        report("top 10 counterparties (" + counterparties.size() + ")", start);
+
+        start = System.nanoTime();
+        List<List<String>> components = graph.findStronglyConnectedComponents(2);
+        report("strongly connected components (" + components.size() + ", largest " + (components.isEmpty() ? 0 : components.get(0).size()) + ")", start);
+
+        start = System.nanoTime();
+        TransferGraph.TransferCycles cycles = graph.findTransferCycles(10);
+        report("three-account cycles (" + cycles.getCount() + ")", start);
+    }
+
+    private static CsrMatrix randomMatrix(int accountCount, int transferCount, double skew, Random random) {
+        ZipfDistribution destinations = new ZipfDistribution(accountCount, skew);
+        int[] sources = new int[transferCount];
+        int[] targets = new int[transferCount];
+        int[] rowOffsets = new int[accountCount + 1];
+        for (int i = 0; i < transferCount; i++) {
+            sources[i] = random.nextInt(accountCount);
+            targets[i] = destinations.sample(random);
+            if (targets[i] == sources[i]) {
+                targets[i] = (targets[i] + 1) % accountCount;
+            }
+            rowOffsets[sources[i] + 1]++;
+        }
+        for (int i = 0; i < accountCount; i++) {
+            rowOffsets[i + 1] += rowOffsets[i];
+        }
+        int[] next = Arrays.copyOf(rowOffsets, accountCount);
+        int[] columns = new int[transferCount];
+        for (int i = 0; i < transferCount; i++) {
+            columns[next[sources[i]]++] = targets[i];
+        }
+        int[] compactOffsets = new int[accountCount + 1];
+        int[] compactColumns = new int[transferCount];
+        double[] values = new double[transferCount];
+        int size = 0;
+        for (int row = 0; row < accountCount; row++) {
+            Arrays.sort(columns, rowOffsets[row], rowOffsets[row + 1]);
+            for (int k = rowOffsets[row]; k < rowOffsets[row + 1]; k++) {
+                double amount = Math.round(random.nextDouble() * 100_000) / 100.0 + 0.01;
+                if (size > compactOffsets[row] && compactColumns[size - 1] == columns[k]) {
+                    values[size - 1] += amount;
+                } else {
+                    compactColumns[size] = columns[k];
+                    values[size++] = amount;
+                }
+            }
+            compactOffsets[row + 1] = size;
+        }
+        return new CsrMatrix(accountCount, compactOffsets, Arrays.copyOf(compactColumns, size), Arrays.copyOf(values, size));
+    }
+
+    private static void report(String name, long startNanos) {
+        System.out.printf("%s\t%.1f ms%n", name, (System.nanoTime() - startNanos) / 1e6);
+    }
+}
@@ -0,0 +1,101 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import engine.Checkpointer;
+import engine.TransactionEngine;
+import entities.Account;
+import entities.Transaction;
+import utils.AccountRegistry;
+import utils.RollingStatistics;
+import utils.TransactionLog;
+import utils.TransactionMatrix;
+import utils.TransactionStatistics;
+import utils.ViewCheckpoint;
+
+public class ViewLoadBenchmark {
+    private static final long SPAN = 7L * 24 * 3600 * 1000;
+
+    public static void main(String[] args) throws IOException {
+        int transactionCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int accountCount = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        WorkloadGenerator generator = new WorkloadGenerator(accountCount, 1.1, "40:30:30", 42);
+        Random random = new Random(42);
+        List<Account> accountList = generator.createAccounts(random);
+        long now = System.currentTimeMillis();
+        List<Transaction> transactions = generator.createTransactions(accountList, transactionCount, now - SPAN, now, random);
+        AccountRegistry accounts = new AccountRegistry(accountList);
+        TransactionLog log = new TransactionLog();
+        log.addAll(transactions);
+
+        TransactionStatistics expectedStatistics = new TransactionStatistics(0, false);
+        expectedStatistics.addTransactions(log.cursor());
+        RollingStatistics expectedRollingStatistics = new RollingStatistics();
+        expectedRollingStatistics.addTransactions(log.cursor());
+        TransactionMatrix expectedMatrix = new TransactionMatrix(accounts);
+        expectedMatrix.recordTransactions(log.cursor());
+
+        System.out.println("load\tviews ready ms\tviews match\tcheckpoint written");
+        ExecutorService loader = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "view-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            run("checkpoint", CompletableFuture.completedFuture(ViewCheckpoint.empty()), accounts, log, loader,
+                    expectedStatistics, expectedRollingStatistics, expectedMatrix, now);
+            CompletableFuture<ViewCheckpoint> failedLoad = new CompletableFuture<>();
+            failedLoad.completeExceptionally(new IOException("Simulated view checkpoint read failure."));
+            run("failed", failedLoad, accounts, log, loader, expectedStatistics, expectedRollingStatistics, expectedMatrix, now);
+        } finally {
+            loader.shutdown();
+        }
+    }
+
+    private static void run(String name, CompletableFuture<ViewCheckpoint> checkpoint, AccountRegistry accounts, TransactionLog log, ExecutorService loader,
+            TransactionStatistics expectedStatistics, RollingStatistics expectedRollingStatistics, TransactionMatrix expectedMatrix, long now) throws IOException {
+        TransactionEngine engine = TransactionEngine.withDeferredViews(accounts, log);
+        long start = System.nanoTime();
+        engine.loadViewsInBackground(checkpoint, loader);
+        TransactionStatistics statistics = engine.getStatistics();
+        RollingStatistics rollingStatistics = engine.getRollingStatistics();
+        TransactionMatrix matrix = engine.getTransactionMatrix();
+        long elapsed = System.nanoTime() - start;
+
+        boolean matches = statistics.getTransactionCount() == expectedStatistics.getTransactionCount()
+                && Math.abs(statistics.getTotalAmount() - expectedStatistics.getTotalAmount()) < 0.005
+                && rollingStatistics.getLastDay(now).getCount() == expectedRollingStatistics.getLastDay(now).getCount()
+                && matrix.getCsrMatrix().getNonZeroCount() == expectedMatrix.getCsrMatrix().getNonZeroCount();
+
+        Path directory = Files.createTempDirectory("views");
+        boolean written;
+        try {
+            Path viewsFile = directory.resolve("views.checkpoint");
+            Checkpointer checkpointer = new Checkpointer(engine, directory.resolve("transactions.journal").toString(),
+                    directory.resolve("snapshot.bin").toString(), viewsFile.toString(), 0);
+            checkpointer.checkpoint();
+            written = Files.isRegularFile(viewsFile);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+
+        System.out.println(name + "\t" + String.format("%.1f", elapsed / 1e6) + "\t" + matches + "\t" + written);
+        if (!matches || !written) {
+            throw new IllegalStateException("Views after a " + name + " load do not match the transaction log or could not be checkpointed.");
+        }
+    }
+}
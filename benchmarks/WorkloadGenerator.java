@@ -0,0 +1,194 @@
+package benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import entities.Account;
+import entities.Transaction;
+import entities.TransactionId;
+import utils.FileManager;
+import utils.TransactionType;
+
+public class WorkloadGenerator {
+    private static final double MEDIAN_AMOUNT = 120;
+    private static final double AMOUNT_SIGMA = 1.2;
+    private static final double MAX_AMOUNT = 50_000;
+
+    private final int accountCount;
+    private final ZipfDistribution accountDistribution;
+    private final double[] typeWeights;
+    private final int[] accountOrder;
+
+    public WorkloadGenerator(int accountCount, double skew, String mix, long seed) {
+        this.accountCount = accountCount;
+        this.accountDistribution = new ZipfDistribution(accountCount, skew);
+        this.typeWeights = parseMix(mix);
+        this.accountOrder = new int[accountCount];
+        Random random = new Random(seed);
+        for (int i = 0; i < accountCount; i++) {
+            accountOrder[i] = i;
+        }
+        for (int i = accountCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = accountOrder[i];
+            accountOrder[i] = accountOrder[j];
+            accountOrder[j] = swap;
+        }
+    }
+
+    public static String accountNo(int index) {
+        return String.format("RO%08d", index);
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public String nextAccountNo(Random random) {
+        return accountNo(accountOrder[accountDistribution.sample(random)]);
+    }
+
+    public String nextCounterpartyNo(Random random, String sourceAccountNo) {
+        String destination = nextAccountNo(random);
+        while (destination.equals(sourceAccountNo)) {
+            destination = accountNo(random.nextInt(accountCount));
+        }
+        return destination;
+    }
+
+    public TransactionType nextType(Random random) {
+        double point = random.nextDouble();
+        if (point < typeWeights[0]) {
+            return TransactionType.DEPOSIT;
+        }
+        if (point < typeWeights[0] + typeWeights[1]) {
+            return TransactionType.WITHDRAWAL;
+        }
+        return TransactionType.TRANSFER;
+    }
+
+    public double nextAmount(Random random) {
+        double amount = MEDIAN_AMOUNT * Math.exp(AMOUNT_SIGMA * random.nextGaussian());
+        return Math.max(0.01, Math.min(MAX_AMOUNT, Math.round(amount * 100) / 100.0));
+    }
+
+    public List<Account> createAccounts(Random random) {
+        List<Account> accounts = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(new Account(accountNo(i), "Owner " + i, Math.round(random.nextDouble() * 1_000_000) / 100.0));
+        }
+        return accounts;
+    }
+
+    public List<Transaction> createTransactions(List<Account> accounts, int count, long fromMillis, long toMillis, Random random) {
+        double[] balances = new double[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            balances[i] = accounts.get(i).getBalance();
+        }
+        long[] timestamps = new long[count];
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = fromMillis + (long) (random.nextDouble() * (toMillis - fromMillis));
+        }
+        Arrays.sort(timestamps);
+
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TransactionId id = TransactionId.of(random.nextLong(), random.nextLong());
+            Date date = new Date(timestamps[i]);
+            String source = nextAccountNo(random);
+            int sourceIndex = indexOf(source);
+            double amount = nextAmount(random);
+            TransactionType type = nextType(random);
+            if (type != TransactionType.DEPOSIT && balances[sourceIndex] < amount) {
+                type = TransactionType.DEPOSIT;
+            }
+            if (type == TransactionType.TRANSFER) {
+                String destination = nextCounterpartyNo(random, source);
+                balances[sourceIndex] -= amount;
+                balances[indexOf(destination)] += amount;
+                transactions.add(new Transaction(id, amount, date, type, source, destination));
+            } else {
+                balances[sourceIndex] += type == TransactionType.DEPOSIT ? amount : -amount;
+                transactions.add(new Transaction(id, amount, date, type, source));
+            }
+        }
+        for (int i = 0; i < accountCount; i++) {
+            accounts.get(i).setBalance(Math.round(balances[i] * 100) / 100.0);
+        }
+        return transactions;
+    }
+
+    private static int indexOf(String accountNo) {
+        return Integer.parseInt(accountNo.substring(2));
+    }
+
+    private static double[] parseMix(String mix) {
+        String[] parts = mix.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Mix must be deposit:withdrawal:transfer, e.g. 40:30:30");
+        }
+        double[] weights = new double[3];
+        double total = 0;
+        for (int i = 0; i < 3; i++) {
+            weights[i] = Double.parseDouble(parts[i]);
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Mix weights cannot be negative.");
+            }
+            total += weights[i];
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one mix weight must be positive.");
+        }
+        for (int i = 0; i < 3; i++) {
+            weights[i] /= total;
+        }
+        return weights;
+    }
+
+    static long parseDate(String value) throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        format.setLenient(false);
+        return format.parse(value).getTime();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("Usage: WorkloadGenerator <outputDir> <accounts> <transactions> [skew=1.1] [mix=40:30:30] [from=yyyy-MM-dd] [to=yyyy-MM-dd] [seed=42]");
+            return;
+        }
+        Path directory = Paths.get(args[0]);
+        int accountCount = Integer.parseInt(args[1]);
+        int transactionCount = Integer.parseInt(args[2]);
+        double skew = args.length > 3 ? Double.parseDouble(args[3]) : 1.1;
+        String mix = args.length > 4 ? args[4] : "40:30:30";
+        long toMillis = args.length > 6 ? parseDate(args[6]) : System.currentTimeMillis();
+        long fromMillis = args.length > 5 ? parseDate(args[5]) : toMillis - 365L * 24 * 3600 * 1000;
+        long seed = args.length > 7 ? Long.parseLong(args[7]) : 42;
+        if (fromMillis >= toMillis) {
+            throw new IllegalArgumentException("The start date must be before the end date.");
+        }
+        if (accountCount < 2) {
+            throw new IllegalArgumentException("At least two accounts are needed for transfers.");
+        }
+
+        Files.createDirectories(directory);
+        Random random = new Random(seed);
+        WorkloadGenerator generator = new WorkloadGenerator(accountCount, skew, mix, seed);
+        long start = System.nanoTime();
+        List<Account> accounts = generator.createAccounts(random);
+        List<Transaction> transactions = generator.createTransactions(accounts, transactionCount, fromMillis, toMillis, random);
+        long generatedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        FileManager.saveAccountsToJSON(accounts, directory.resolve("accounts.json").toString());
+        FileManager.saveTransactionsToJSON(transactions, directory.resolve("transactions.json").toString());
+        System.out.println("Generated " + accountCount + " accounts and " + transactionCount + " transactions in " + generatedMillis + " ms");
+    }
+}
@@ -0,0 +1,250 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import entities.Account;
+import entities.Transaction;
+import entities.TransactionId;
+import metrics.Metrics;
+import utils.BinarySnapshot;
+import utils.CheckpointDelta;
+import utils.TransactionJournal;
+import utils.ViewCheckpoint;
+
+public class Checkpointer implements AutoCloseable {
+    private static final String DELTA_PREFIX = "checkpoint";
+    private static final String DELTA_SUFFIX = ".delta";
+
+    private final TransactionEngine engine;
+    private final Path directory;
+    private final String journalFile;
+    private final String snapshotFile;
+    private final String viewsFile;
+    private final long compactionThreshold;
+    private ScheduledExecutorService scheduler;
+    private long sequence;
+    private int checkpointedTransactions;
+    private long recordsSinceCompaction;
+    private boolean compactionRequired;
+
+    public Checkpointer(TransactionEngine engine, String journalFile, String snapshotFile, String viewsFile, long compactionThreshold) {
+        this.engine = engine;
+        this.directory = Paths.get(journalFile).toAbsolutePath().getParent();
+        this.journalFile = journalFile;
+        this.snapshotFile = snapshotFile;
+        this.viewsFile = viewsFile;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public synchronized long recover(long snapshotSequence) {
+        sequence = snapshotSequence;
+        Set<TransactionId> transactionIds = engine.knownTransactionIds();
+        long recovered = 0;
+        try {
+            for (Map.Entry<Long, Path> entry : listSequenced(DELTA_PREFIX, DELTA_SUFFIX).tailMap(snapshotSequence, false).entrySet()) {
+                CheckpointDelta delta = CheckpointDelta.read(entry.getValue());
+                engine.applyCheckpointDelta(delta, transactionIds);
+                recovered += delta.getAccounts().size() + delta.getTransactions().size();
+                sequence = entry.getKey();
+            }
+            checkpointedTransactions = engine.getTransactions().size();
+            for (Map.Entry<Long, Path> entry : listSequenced(journalPrefix(), "").entrySet()) {
+                recovered += engine.recoverFromJournal(entry.getValue().toString(), transactionIds);
+                sequence = Math.max(sequence, entry.getKey());
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: could not read checkpoints: " + e.getMessage());
+            checkpointedTransactions = engine.getTransactions().size();
+            compactionRequired = true;
+        }
+        recovered += engine.recoverFromJournal(journalFile, transactionIds);
+        recordsSinceCompaction += recovered;
+        return recovered;
+    }
+
+    public synchronized void start(long intervalSeconds) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (intervalSeconds > 0) {
+            scheduler.scheduleWithFixedDelay(this::checkpoint, 0, intervalSeconds, TimeUnit.SECONDS);
+        } else {
+            scheduler.execute(this::checkpoint);
+        }
+    }
+
+    public synchronized void checkpoint() {
+        try {
+            engine.awaitViews();
+            if (compactionRequired || recordsSinceCompaction >= compactionThreshold) {
+                compact();
+            } else {
+                writeDelta();
+            }
+        } catch (IOException | RuntimeException e) {
+            compactionRequired = true;
+            System.out.println("Warning: checkpoint failed: " + e.getMessage());
+        }
+    }
+
+    private void writeDelta() throws IOException {
+        long startNanos = System.nanoTime();
+        long deltaSequence = sequence + 1;
+        String archive = archiveName(deltaSequence);
+        CheckpointDelta delta;
+        engine.lockForCheckpoint();
+        try {
+            List<Transaction> transactions = engine.getTransactions();
+            int transactionCount = transactions.size();
+            Set<String> dirtyAccounts = engine.drainDirtyAccounts();
+            if (dirtyAccounts.isEmpty() && transactionCount == checkpointedTransactions) {
+                return;
+            }
+            List<Account> accounts = new ArrayList<>(dirtyAccounts.size());
+            for (String accountNo : dirtyAccounts) {
+                Account account = engine.findAccount(accountNo);
+                if (account != null) {
+                    accounts.add(copyOf(account));
+                }
+            }
+            delta = new CheckpointDelta(deltaSequence, accounts,
+                    new ArrayList<>(transactions.subList(checkpointedTransactions, transactionCount)));
+            rotateJournal(archive);
+            checkpointedTransactions = transactionCount;
+            sequence = deltaSequence;
+        } finally {
+            engine.unlockForCheckpoint();
+        }
+        Metrics.timer("checkpoint.cut").recordSince(startNanos);
+
+        delta.write(directory.resolve(deltaFileName(deltaSequence)));
+        deleteJournalArchives(deltaSequence);
+        recordsSinceCompaction += delta.getAccounts().size() + delta.getTransactions().size();
+        Metrics.timer("checkpoint.delta").recordSince(startNanos);
+    }
+
+    private void compact() throws IOException {
+        long startNanos = System.nanoTime();
+        long snapshotSequence = sequence + 1;
+        String archive = archiveName(snapshotSequence);
+        List<Account> accounts;
+        List<Transaction> transactions;
+        ViewCheckpoint views;
+        engine.lockForCheckpoint();
+        try {
+            accounts = new ArrayList<>(engine.getAccounts().size());
+            for (Account account : engine.getAccounts()) {
+                accounts.add(copyOf(account));
+            }
+            int transactionCount = engine.getTransactions().size();
+            transactions = engine.getTransactions().subList(0, transactionCount);
+            views = engine.captureViews();
+            engine.drainDirtyAccounts();
+            rotateJournal(archive);
+            checkpointedTransactions = transactionCount;
+            sequence = snapshotSequence;
+        } finally {
+            engine.unlockForCheckpoint();
+        }
+        Metrics.timer("checkpoint.cut").recordSince(startNanos);
+
+        BinarySnapshot.write(snapshotFile, accounts, transactions, snapshotSequence);
+        views.write(viewsFile);
+        syncDirectory();
+        for (Path delta : listSequenced(DELTA_PREFIX, DELTA_SUFFIX).headMap(snapshotSequence, true).values()) {
+            Files.deleteIfExists(delta);
+        }
+        deleteJournalArchives(snapshotSequence);
+        recordsSinceCompaction = 0;
+        compactionRequired = false;
+        Metrics.timer("checkpoint.compaction").recordSince(startNanos);
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not every platform can open a directory for syncing; the renames are still atomic.
+        }
+    }
+
+    private void rotateJournal(String archive) throws IOException {
+        TransactionJournal journal = engine.getJournal();
+        if (journal != null) {
+            journal.rotate(archive);
+        }
+    }
+
+    private void deleteJournalArchives(long throughSequence) throws IOException {
+        for (Path archive : listSequenced(journalPrefix(), "").headMap(throughSequence, true).values()) {
+            Files.deleteIfExists(archive);
+        }
+    }
+
+    private static Account copyOf(Account account) {
+        Account copy = new Account(account.getAccountNo(), account.getOwner(), account.getBalance());
+        copy.setOpeningBalance(account.getOpeningBalance());
+        return copy;
+    }
+
+    private String journalPrefix() {
+        return Paths.get(journalFile).getFileName().toString();
+    }
+
+    private String archiveName(long archiveSequence) {
+        return String.format("%s.%06d", journalFile, archiveSequence);
+    }
+
+    private static String deltaFileName(long deltaSequence) {
+        return String.format("%s.%06d%s", DELTA_PREFIX, deltaSequence, DELTA_SUFFIX);
+    }
+
+    private TreeMap<Long, Path> listSequenced(String prefix, String suffix) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + ".*" + suffix)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    files.put(Long.parseLong(name.substring(prefix.length() + 1, name.length() - suffix.length())), path);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+            }
+        }
+        return files;
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService currentScheduler;
+        synchronized (this) {
+            currentScheduler = scheduler;
+            scheduler = null;
+        }
+        if (currentScheduler != null) {
+            currentScheduler.shutdown();
+            try {
+                currentScheduler.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        checkpoint();
+    }
+}
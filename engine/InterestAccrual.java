@@ -0,0 +1,158 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import entities.Account;
+import entities.Transaction;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import utils.InterestTiers;
+
+public class InterestAccrual {
+    private static final LatencyHistogram ACCRUAL_TIMER = Metrics.timer("engine.accrueInterest");
+    private static final int CHUNK_SIZE = 1 << 13;
+    private static final int LOCK_BATCH_SIZE = 256;
+    private static final double MINIMUM_INTEREST = 0.01;
+
+    private final TransactionEngine engine;
+    private final InterestTiers tiers;
+    private final ForkJoinPool pool;
+
+    public InterestAccrual(TransactionEngine engine, InterestTiers tiers) {
+        this(engine, tiers, ForkJoinPool.commonPool());
+    }
+
+    public InterestAccrual(TransactionEngine engine, InterestTiers tiers, ForkJoinPool pool) {
+        this.engine = engine;
+        this.tiers = tiers;
+        this.pool = pool;
+    }
+
+    public Result run() {
+        long startNanos = System.nanoTime();
+        List<Account> accounts = engine.getAccounts().getAccounts();
+        double[] balances = new double[accounts.size()];
+        double[] interest = new double[accounts.size()];
+        AtomicLong credited = new AtomicLong();
+        AtomicLong recomputed = new AtomicLong();
+        DoubleAdder total = new DoubleAdder();
+        pool.invoke(new ChunkTask(accounts, balances, interest, 0, accounts.size(), credited, recomputed, total));
+        ACCRUAL_TIMER.recordSince(startNanos);
+        return new Result(accounts.size(), credited.get(), recomputed.get(), total.sum(), System.nanoTime() - startNanos);
+    }
+
+    private final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Account> accounts;
+        private final double[] balances;
+        private final double[] interest;
+        private final int from;
+        private final int to;
+        private final AtomicLong credited;
+        private final AtomicLong recomputed;
+        private final DoubleAdder total;
+
+        ChunkTask(List<Account> accounts, double[] balances, double[] interest, int from, int to, AtomicLong credited, AtomicLong recomputed, DoubleAdder total) {
+            this.accounts = accounts;
+            this.balances = balances;
+            this.interest = interest;
+            this.from = from;
+            this.to = to;
+            this.credited = credited;
+            this.recomputed = recomputed;
+            this.total = total;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(accounts, balances, interest, from, middle, credited, recomputed, total),
+                        new ChunkTask(accounts, balances, interest, middle, to, credited, recomputed, total));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                balances[i] = accounts.get(i).getBalance();
+            }
+            tiers.computeInterest(balances, interest, from, to);
+            List<Transaction> transactions = new ArrayList<>(LOCK_BATCH_SIZE);
+            long chunkCredited = 0;
+            double chunkTotal = 0;
+            long chunkRecomputed = 0;
+            for (int batchFrom = from; batchFrom < to; batchFrom += LOCK_BATCH_SIZE) {
+                int batchTo = Math.min(batchFrom + LOCK_BATCH_SIZE, to);
+                transactions.clear();
+                engine.lockForBatch();
+                try {
+                    for (int i = batchFrom; i < batchTo; i++) {
+                        Account account = accounts.get(i);
+                        double balance = balances[i];
+                        double amount = interest[i];
+                        Transaction transaction = null;
+                        while (amount >= MINIMUM_INTEREST && (transaction = engine.creditInterest(account, balance, amount)) == null) {
+                            balance = account.getBalance();
+                            amount = tiers.interestOn(balance);
+                            chunkRecomputed++;
+                        }
+                        if (transaction != null) {
+                            transactions.add(transaction);
+                            chunkTotal += amount;
+                        }
+                    }
+                } finally {
+                    try {
+                        engine.applyBatch(transactions);
+                    } finally {
+                        engine.unlockForBatch();
+                    }
+                }
+                chunkCredited += transactions.size();
+            }
+            credited.addAndGet(chunkCredited);
+            recomputed.addAndGet(chunkRecomputed);
+            total.add(chunkTotal);
+        }
+    }
+
+    public static class Result {
+        private final int accountCount;
+        private final long creditedCount;
+        private final long recomputedCount;
+        private final double totalInterest;
+        private final long elapsedNanos;
+
+        Result(int accountCount, long creditedCount, long recomputedCount, double totalInterest, long elapsedNanos) {
+            this.accountCount = accountCount;
+            this.creditedCount = creditedCount;
+            this.recomputedCount = recomputedCount;
+            this.totalInterest = totalInterest;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getAccountCount() {
+            return accountCount;
+        }
+
+        public long getCreditedCount() {
+            return creditedCount;
+        }
+
+        public long getRecomputedCount() {
+            return recomputedCount;
+        }
+
+        public double getTotalInterest() {
+            return totalInterest;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
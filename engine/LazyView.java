@@ -0,0 +1,69 @@
+package engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import metrics.Metrics;
+
+final class LazyView<T> {
+    private final String name;
+    private final Supplier<T> rebuilder;
+    private final CompletableFuture<T> loaded = new CompletableFuture<>();
+    private volatile T view;
+
+    LazyView(String name, Supplier<T> rebuilder) {
+        this.name = name;
+        this.rebuilder = rebuilder;
+    }
+
+    LazyView(String name, T view) {
+        this(name, () -> view);
+        install(view);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    T getIfReady() {
+        return view;
+    }
+
+    T get() {
+        T current = view;
+        if (current != null) {
+            return current;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            current = loaded.join();
+        } catch (CompletionException e) {
+            current = rebuild(e.getCause() != null ? e.getCause() : e);
+        }
+        Metrics.timer("startup.wait." + name).recordSince(startNanos);
+        return current;
+    }
+
+    private synchronized T rebuild(Throwable error) {
+        T current = view;
+        if (current != null) {
+            return current;
+        }
+        System.out.println("Warning: Could not load " + name + " (" + error.getMessage() + "). Rebuilding it from the transaction log.");
+        try {
+            return rebuilder.get();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("The " + name + " view could not be rebuilt: " + e.getMessage(), e);
+        }
+    }
+
+    void install(T loadedView) {
+        view = loadedView;
+        loaded.complete(loadedView);
+    }
+
+    void fail(Throwable error) {
+        loaded.completeExceptionally(error);
+    }
+}
@@ -0,0 +1,445 @@
+package engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import entities.Account;
+import entities.Transaction;
+import entities.TransactionId;
+import exceptions.AccountNotFoundException;
+import exceptions.InsufficientFundsException;
+import exceptions.InvalidAccountDataException;
+import exceptions.InvalidAmountException;
+import exceptions.InvalidTransactionException;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+import utils.AccountRegistry;
+import utils.CheckpointDelta;
+import utils.InterestTiers;
+import utils.Ledger;
+import utils.ReconciliationEngine;
+import utils.ReconciliationReport;
+import utils.ReportEngine;
+import utils.RollingStatistics;
+import utils.TransactionIdGenerator;
+import utils.TransactionJournal;
+import utils.TransactionLog;
+import utils.TransactionMatrix;
+import utils.TransactionPage;
+import utils.TransactionReport;
+import utils.TransactionStatistics;
+import utils.ViewCheckpoint;
+
+public class TransactionEngine {
+    private static final LatencyHistogram CREATE_ACCOUNT_TIMER = Metrics.timer("engine.createAccount");
+    private static final LatencyHistogram DEPOSIT_TIMER = Metrics.timer("engine.deposit");
+    private static final LatencyHistogram WITHDRAW_TIMER = Metrics.timer("engine.withdraw");
+    private static final LatencyHistogram TRANSFER_TIMER = Metrics.timer("engine.transfer");
+
+    private final Ledger ledger;
+    private final LazyView<TransactionStatistics> statistics;
+    private final LazyView<RollingStatistics> rollingStatistics;
+    private final LazyView<TransactionMatrix> transactionMatrix;
+    private volatile TransactionJournal journal;
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private Set<String> dirtyAccounts = ConcurrentHashMap.newKeySet();
+
+    public TransactionEngine(AccountRegistry accounts, TransactionLog transactions, TransactionStatistics statistics,
+            RollingStatistics rollingStatistics, TransactionMatrix transactionMatrix) {
+        this.ledger = new Ledger(accounts, transactions);
+        this.statistics = new LazyView<>("statistics", statistics);
+        this.rollingStatistics = new LazyView<>("rollingStatistics", rollingStatistics);
+        this.transactionMatrix = new LazyView<>("matrix", transactionMatrix);
+        journalCommits();
+    }
+
+    private TransactionEngine(AccountRegistry accounts, TransactionLog transactions) {
+        this.ledger = new Ledger(accounts, transactions);
+        this.statistics = new LazyView<>("statistics", this::rebuildStatistics);
+        this.rollingStatistics = new LazyView<>("rollingStatistics", this::rebuildRollingStatistics);
+        this.transactionMatrix = new LazyView<>("matrix", this::rebuildMatrix);
+        journalCommits();
+    }
+
+    private void journalCommits() {
+        ledger.setCommitListener(new Ledger.CommitListener() {
+            @Override
+            public void onAccount(Account account) {
+                TransactionJournal currentJournal = journal;
+                if (currentJournal != null) {
+                    currentJournal.appendAccount(account);
+                }
+            }
+
+            @Override
+            public void onTransaction(Transaction transaction) {
+                TransactionJournal currentJournal = journal;
+                if (currentJournal != null) {
+                    currentJournal.appendTransaction(transaction);
+                }
+            }
+        });
+    }
+
+    public static TransactionEngine withDeferredViews(AccountRegistry accounts, TransactionLog transactions) {
+        return new TransactionEngine(accounts, transactions);
+    }
+
+    public static TransactionEngine inMemory() {
+        AccountRegistry accounts = new AccountRegistry();
+        return new TransactionEngine(accounts, new TransactionLog(), new TransactionStatistics(1000, false),
+                new RollingStatistics(), new TransactionMatrix(accounts));
+    }
+
+    public void setTransactionIdGenerator(TransactionIdGenerator idGenerator) {
+        ledger.setIdGenerator(idGenerator);
+    }
+
+    public void setJournal(TransactionJournal journal) {
+        this.journal = journal;
+    }
+
+    TransactionJournal getJournal() {
+        return journal;
+    }
+
+    public TransactionResult createAccount(String accountNo, String owner, double balance) {
+        long startNanos = System.nanoTime();
+        checkpointLock.readLock().lock();
+        try {
+            Account account = ledger.createAccount(accountNo, owner, balance);
+            addToMatrix(account);
+            dirtyAccounts.add(account.getAccountNo());
+            return measured(CREATE_ACCOUNT_TIMER, "engine.createAccount", startNanos, TransactionResult.success("Account created successfully!", account, null));
+        } catch (InvalidAccountDataException | IllegalArgumentException | UncheckedIOException e) {
+            return measured(CREATE_ACCOUNT_TIMER, "engine.createAccount", startNanos, TransactionResult.failure(e));
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    public TransactionResult deposit(String accountNo, double amount) {
+        long startNanos = System.nanoTime();
+        checkpointLock.readLock().lock();
+        try {
+            return measured(DEPOSIT_TIMER, "engine.deposit", startNanos, committed("Deposit successful.", ledger.deposit(accountNo, amount)));
+        } catch (AccountNotFoundException | InvalidAmountException | UncheckedIOException e) {
+            return measured(DEPOSIT_TIMER, "engine.deposit", startNanos, TransactionResult.failure(e));
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    public TransactionResult withdraw(String accountNo, double amount) {
+        long startNanos = System.nanoTime();
+        checkpointLock.readLock().lock();
+        try {
+            return measured(WITHDRAW_TIMER, "engine.withdraw", startNanos, committed("Withdrawal successful.", ledger.withdraw(accountNo, amount)));
+        } catch (AccountNotFoundException | InvalidAmountException | InsufficientFundsException | UncheckedIOException e) {
+            return measured(WITHDRAW_TIMER, "engine.withdraw", startNanos, TransactionResult.failure(e));
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    public TransactionResult transfer(String sourceAccountNo, String destinationAccountNo, double amount) {
+        long startNanos = System.nanoTime();
+        checkpointLock.readLock().lock();
+        try {
+            return measured(TRANSFER_TIMER, "engine.transfer", startNanos, committed("Transfer successful.", ledger.transfer(sourceAccountNo, destinationAccountNo, amount)));
+        } catch (AccountNotFoundException | InvalidTransactionException | InvalidAmountException | InsufficientFundsException | UncheckedIOException e) {
+            return measured(TRANSFER_TIMER, "engine.transfer", startNanos, TransactionResult.failure(e));
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    private TransactionResult committed(String message, Transaction transaction) {
+        applyToViews(transaction);
+        return TransactionResult.success(message, null, transaction);
+    }
+
+    private static TransactionResult measured(LatencyHistogram timer, String operation, long startNanos, TransactionResult result) {
+        timer.recordSince(startNanos);
+        if (!result.isSuccessful()) {
+            Metrics.recordFailure(operation, result.getError());
+        }
+        return result;
+    }
+
+    private void applyToViews(Transaction transaction) {
+        dirtyAccounts.add(transaction.getSourceAccountNo());
+        if (transaction.getDestinationAccountNo() != null) {
+            dirtyAccounts.add(transaction.getDestinationAccountNo());
+        }
+        addToViews(transaction);
+    }
+
+    private void addToViews(Transaction transaction) {
+        TransactionStatistics currentStatistics = statistics.getIfReady();
+        if (currentStatistics != null) {
+            currentStatistics.addTransaction(transaction);
+        }
+        RollingStatistics currentRollingStatistics = rollingStatistics.getIfReady();
+        if (currentRollingStatistics != null) {
+            currentRollingStatistics.addTransaction(transaction);
+        }
+        TransactionMatrix matrix = transactionMatrix.getIfReady();
+        if (matrix != null) {
+            matrix.recordTransaction(transaction);
+        }
+    }
+
+    private void addToMatrix(Account account) {
+        TransactionMatrix matrix = transactionMatrix.getIfReady();
+        if (matrix != null) {
+            matrix.addAccount(account);
+        }
+    }
+
+    public void loadViewsInBackground(CompletableFuture<ViewCheckpoint> checkpoint, Executor executor) {
+        long startNanos = System.nanoTime();
+        checkpoint.thenAcceptAsync(loaded -> installCaughtUp(statistics, loaded.getStatistics(), loaded.getPosition(),
+                TransactionStatistics::addTransactions, startNanos), executor)
+                .exceptionally(error -> failed(statistics, error));
+        checkpoint.thenAcceptAsync(loaded -> installCaughtUp(rollingStatistics, new RollingStatistics(), rollingWindowStart(),
+                RollingStatistics::addTransactions, startNanos), executor)
+                .exceptionally(error -> failed(rollingStatistics, error));
+        checkpoint.thenAcceptAsync(loaded -> installCaughtUp(transactionMatrix, loaded.getMatrix(ledger.getAccounts()), loaded.getPosition(),
+                this::catchUpMatrix, startNanos), executor)
+                .exceptionally(error -> failed(transactionMatrix, error));
+    }
+
+    private <T> void installCaughtUp(LazyView<T> view, T base, int fromPosition, BiConsumer<T, TransactionLog.Cursor> catchUp, long startNanos) {
+        TransactionLog log = ledger.getTransactionLog();
+        int unlockedEnd = log.size();
+        catchUp.accept(base, log.cursor(Math.min(fromPosition, unlockedEnd), unlockedEnd));
+        checkpointLock.writeLock().lock();
+        try {
+            catchUp.accept(base, log.cursor(Math.max(unlockedEnd, Math.min(fromPosition, log.size())), log.size()));
+            view.install(base);
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+        Metrics.timer("startup.view." + view.getName()).recordSince(startNanos);
+    }
+
+    private int rollingWindowStart() {
+        return ledger.getTransactionLog().firstPositionSince(new Date(System.currentTimeMillis() - RollingStatistics.LONGEST_WINDOW_MILLIS));
+    }
+
+    private TransactionStatistics rebuildStatistics() {
+        return rebuilt(statistics, new TransactionStatistics(0, false), 0, TransactionStatistics::addTransactions);
+    }
+
+    private RollingStatistics rebuildRollingStatistics() {
+        return rebuilt(rollingStatistics, new RollingStatistics(), rollingWindowStart(), RollingStatistics::addTransactions);
+    }
+
+    private TransactionMatrix rebuildMatrix() {
+        return rebuilt(transactionMatrix, new TransactionMatrix(ledger.getAccounts()), 0, this::catchUpMatrix);
+    }
+
+    private <T> T rebuilt(LazyView<T> view, T base, int fromPosition, BiConsumer<T, TransactionLog.Cursor> catchUp) {
+        installCaughtUp(view, base, fromPosition, catchUp, System.nanoTime());
+        return base;
+    }
+
+    private void catchUpMatrix(TransactionMatrix matrix, TransactionLog.Cursor cursor) {
+        matrix.updateAccounts(ledger.getAccounts());
+        matrix.recordTransactions(cursor);
+    }
+
+    private static Void failed(LazyView<?> view, Throwable error) {
+        view.fail(error);
+        try {
+            view.get();
+        } catch (IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        return null;
+    }
+
+    void awaitViews() {
+        statistics.get();
+        rollingStatistics.get();
+        transactionMatrix.get();
+    }
+
+    public long recoverFromJournal(String journalFile) {
+        return recoverFromJournal(journalFile, knownTransactionIds());
+    }
+
+    Set<TransactionId> knownTransactionIds() {
+        Set<TransactionId> transactionIds = new HashSet<>();
+        TransactionLog.Cursor cursor = ledger.getTransactionLog().cursor();
+        while (cursor.next()) {
+            transactionIds.add(cursor.getId());
+        }
+        return transactionIds;
+    }
+
+    long recoverFromJournal(String journalFile, Set<TransactionId> transactionIds) {
+        checkpointLock.readLock().lock();
+        try {
+            return replayJournal(journalFile, transactionIds);
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    private long replayJournal(String journalFile, Set<TransactionId> transactionIds) {
+        return TransactionJournal.replay(journalFile, new TransactionJournal.JournalListener() {
+            @Override
+            public void onAccount(Account account) {
+                if (ledger.getAccounts().add(account)) {
+                    addToMatrix(account);
+                    dirtyAccounts.add(account.getAccountNo());
+                }
+            }
+
+            @Override
+            public void onTransaction(Transaction transaction) {
+                TransactionId transactionId = transaction.getId();
+                if (transactionId == null || !transactionIds.add(transactionId)) {
+                    return;
+                }
+                try {
+                    ledger.replay(transaction);
+                    applyToViews(transaction);
+                } catch (AccountNotFoundException | InvalidTransactionException | InvalidAmountException | InsufficientFundsException e) {
+                    System.out.println("Warning: Journal transaction " + transaction.getTransactionId() + " could not be replayed: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    void applyCheckpointDelta(CheckpointDelta delta, Set<TransactionId> transactionIds) {
+        checkpointLock.readLock().lock();
+        try {
+            for (Account account : delta.getAccounts()) {
+                Account existing = ledger.getAccounts().findAccountByNumber(account.getAccountNo());
+                if (existing != null) {
+                    existing.setBalance(account.getBalance());
+                } else if (ledger.getAccounts().add(account)) {
+                    addToMatrix(account);
+                }
+            }
+            for (Transaction transaction : delta.getTransactions()) {
+                TransactionId transactionId = transaction.getId();
+                if (transactionId != null && transactionIds.add(transactionId)) {
+                    ledger.restore(transaction);
+                    addToViews(transaction);
+                }
+            }
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    public InterestAccrual.Result accrueInterest(InterestTiers tiers) {
+        return new InterestAccrual(this, tiers).run();
+    }
+
+    Transaction creditInterest(Account account, double expectedBalance, double interest) {
+        return ledger.creditInterest(account, expectedBalance, interest);
+    }
+
+    void applyBatch(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            applyToViews(transaction);
+        }
+    }
+
+    void lockForBatch() {
+        checkpointLock.readLock().lock();
+    }
+
+    void unlockForBatch() {
+        checkpointLock.readLock().unlock();
+    }
+
+    void lockForCheckpoint() {
+        checkpointLock.writeLock().lock();
+    }
+
+    void unlockForCheckpoint() {
+        checkpointLock.writeLock().unlock();
+    }
+
+    ViewCheckpoint captureViews() {
+        return ViewCheckpoint.capture(ledger.getTransactionLog(), statistics.get(), transactionMatrix.get());
+    }
+
+    Set<String> drainDirtyAccounts() {
+        Set<String> drained = dirtyAccounts;
+        dirtyAccounts = ConcurrentHashMap.newKeySet();
+        return drained;
+    }
+
+    public boolean accountExists(String accountNo) {
+        return ledger.getAccounts().accountExists(accountNo);
+    }
+
+    public Account findAccount(String accountNo) {
+        return ledger.getAccounts().findAccountByNumber(accountNo);
+    }
+
+    public AccountRegistry getAccounts() {
+        return ledger.getAccounts();
+    }
+
+    public List<Transaction> getTransactions() {
+        return ledger.getTransactions();
+    }
+
+    public TransactionLog getTransactionLog() {
+        return ledger.getTransactionLog();
+    }
+
+    public TransactionPage getAccountHistory(String accountNo, int offset, int limit) {
+        return ledger.getTransactionLog().findByAccount(accountNo, offset, limit);
+    }
+
+    public TransactionPage getTransactionsBetween(Date from, Date to, int offset, int limit) {
+        return ledger.getTransactionLog().findBetween(from, to, offset, limit);
+    }
+
+    public TransactionReport generateReport(int topCount) {
+        return new ReportEngine(ledger.getTransactionLog(), ledger.getAccounts()).generate(topCount);
+    }
+
+    public ReconciliationReport reconcile(String mismatchFile) throws IOException {
+        TransactionStatistics currentStatistics = statistics.get();
+        TransactionMatrix matrix = transactionMatrix.get();
+        ReconciliationEngine.StoredState stored;
+        checkpointLock.writeLock().lock();
+        try {
+            stored = ReconciliationEngine.capture(ledger.getTransactionLog(), ledger.getAccounts(), currentStatistics, matrix);
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+        return new ReconciliationEngine(ledger.getTransactionLog()).reconcile(stored, mismatchFile);
+    }
+
+    public TransactionStatistics getStatistics() {
+        return statistics.get();
+    }
+
+    public RollingStatistics getRollingStatistics() {
+        return rollingStatistics.get();
+    }
+
+    public TransactionMatrix getTransactionMatrix() {
+        return transactionMatrix.get();
+    }
+}
@@ -0,0 +1,53 @@
+package engine;
+
+import entities.Account;
+import entities.Transaction;
+
+public class TransactionResult {
+    private final boolean successful;
+    private final String message;
+    private final Account account;
+    private final Transaction transaction;
+    private final Exception error;
+
+    private TransactionResult(boolean successful, String message, Account account, Transaction transaction, Exception error) {
+        this.successful = successful;
+        this.message = message;
+        this.account = account;
+        this.transaction = transaction;
+        this.error = error;
+    }
+
+    static TransactionResult success(String message, Account account, Transaction transaction) {
+        return new TransactionResult(true, message, account, transaction, null);
+    }
+
+    static TransactionResult failure(Exception error) {
+        return new TransactionResult(false, error.getMessage(), null, null, error);
+    }
+
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public Exception getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionResult [successful=" + successful + ", message=" + message + ", transaction=" + transaction + "]";
+    }
+}
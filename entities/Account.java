@@ -10,11 +10,13 @@ public class Account implements Comparable<Account>, Serializable {
    	private String accountNo;
     private String owner;
     private double balance;
+    private Double openingBalance;
     
     public Account(String accountNo, String owner, double balance) {
         this.accountNo = accountNo;
         this.owner = owner;
         this.balance = balance;
+        this.openingBalance = balance;
     }
     
     public String getAccountNo() {
@@ -25,10 +27,25 @@ public class Account implements Comparable<Account>, Serializable {
         return owner;
     }
 
-    public double getBalance() {
+    public synchronized double getBalance() {
         return balance;
     }
 
+    public boolean hasOpeningBalance() {
+        return openingBalance != null;
+    }
+
+    public Double getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public void setOpeningBalance(Double openingBalance) {
+        if (openingBalance != null && openingBalance < 0) {
+            throw new IllegalArgumentException("Opening balance cannot be negative.");
+        }
+        this.openingBalance = openingBalance;
+    }
+
     public void setAccountNo(String accountNo) {
         if (accountNo == null || accountNo.isEmpty()) {
             throw new IllegalArgumentException("Account number cannot be null or empty.");
@@ -43,21 +60,21 @@ public class Account implements Comparable<Account>, Serializable {
         this.owner = owner;
     }
 
-    public void setBalance(double balance) {
+    public synchronized void setBalance(double balance) {
         if (balance < 0) {
             throw new IllegalArgumentException("Balance cannot be negative.");
         }
         this.balance = balance;
     }
 
-    public void deposit(double amount) throws InvalidAmountException {
+    public synchronized void deposit(double amount) throws InvalidAmountException {
         if (amount <= 0) {
             throw new InvalidAmountException("Deposit amount must be positive.");
         }
         balance += amount;
     }
     
-    public void withdraw(double amount) throws InvalidAmountException, InsufficientFundsException {
+    public synchronized void withdraw(double amount) throws InvalidAmountException, InsufficientFundsException {
         if (amount <= 0) {
             throw new InvalidAmountException("Withdrawal amount must be positive.");
         }
@@ -68,7 +85,7 @@ public class Account implements Comparable<Account>, Serializable {
     }
     
     public void viewDetails() {
-        System.out.println("Account [accountNo=" + accountNo + ", owner=" + owner + ", balance=" + balance + "]");
+        System.out.println("Account [accountNo=" + accountNo + ", owner=" + owner + ", balance=" + getBalance() + "]");
     }
     
     @Override
@@ -79,7 +96,7 @@ public class Account implements Comparable<Account>, Serializable {
 		builder.append(", owner=");
 		builder.append(owner);
 		builder.append(", balance=");
-		builder.append(balance);
+		builder.append(getBalance());
 		builder.append("]");
 		return builder.toString();
 	}
@@ -90,11 +107,28 @@ public class Account implements Comparable<Account>, Serializable {
     }
     
     public void transferTo(Account destinationAccount, double amount) throws InvalidAmountException, InsufficientFundsException {
-        this.withdraw(amount);
-        destinationAccount.deposit(amount);
+        Account first = this.compareTo(destinationAccount) <= 0 ? this : destinationAccount;
+        Account second = first == this ? destinationAccount : this;
+        synchronized (first) {
+            synchronized (second) {
+                this.withdraw(amount);
+                destinationAccount.deposit(amount);
+            }
+        }
     }
     
-    public void applyInterest(double interestRate) {
+    public synchronized boolean creditInterest(double expectedBalance, double interest) {
+        if (interest <= 0) {
+            throw new IllegalArgumentException("Interest must be positive.");
+        }
+        if (balance != expectedBalance) {
+            return false;
+        }
+        balance += interest;
+        return true;
+    }
+
+    public synchronized void applyInterest(double interestRate) {
         if (interestRate < 0) {
             throw new IllegalArgumentException("Interest rate cannot be negative.");
         }
@@ -5,7 +5,9 @@ import java.util.Date;
 import utils.TransactionType;
 
 public class Transaction {
-    private String transactionId;
+    private long idHigh;
+    private long idLow;
+    private String legacyTransactionId;
     private double amount;
     private Date date;
     private TransactionType type;
@@ -15,17 +17,25 @@ public class Transaction {
     public Transaction() {}
 
     public Transaction(String transactionId, double amount, Date date, TransactionType type, String accountNo) {
-        this.transactionId = transactionId;
+        this(TransactionId.parse(transactionId), amount, date, type, accountNo);
+    }
+
+    public Transaction(TransactionId transactionId, double amount, Date date, TransactionType type, String accountNo) {
+        setId(transactionId);
         this.amount = amount;
         this.date = date;
         this.type = type;
-        if (type == TransactionType.DEPOSIT || type == TransactionType.WITHDRAWAL) {
+        if (type == TransactionType.DEPOSIT || type == TransactionType.WITHDRAWAL || type == TransactionType.INTEREST) {
             this.sourceAccountNo = accountNo;
         }
     }
 
     public Transaction(String transactionId, double amount, Date date, TransactionType type, String sourceAccountNo, String destinationAccountNo) {
-        this.transactionId = transactionId;
+        this(TransactionId.parse(transactionId), amount, date, type, sourceAccountNo, destinationAccountNo);
+    }
+
+    public Transaction(TransactionId transactionId, double amount, Date date, TransactionType type, String sourceAccountNo, String destinationAccountNo) {
+        setId(transactionId);
         this.amount = amount;
         this.date = date;
         this.type = type;
@@ -36,11 +46,37 @@ public class Transaction {
     }
 
     public String getTransactionId() {
-        return transactionId;
+        if (legacyTransactionId != null) {
+            return legacyTransactionId;
+        }
+        return hasNumericId() ? TransactionId.format(idHigh, idLow) : null;
     }
 
     public void setTransactionId(String transactionId) {
-        this.transactionId = transactionId;
+        setId(TransactionId.parse(transactionId));
+    }
+
+    public TransactionId getId() {
+        if (legacyTransactionId != null) {
+            return TransactionId.parse(legacyTransactionId);
+        }
+        return hasNumericId() ? TransactionId.of(idHigh, idLow) : null;
+    }
+
+    public void setId(TransactionId transactionId) {
+        if (transactionId == null) {
+            idHigh = 0;
+            idLow = 0;
+            legacyTransactionId = null;
+        } else {
+            idHigh = transactionId.getHigh();
+            idLow = transactionId.getLow();
+            legacyTransactionId = transactionId.getLegacyId();
+        }
+    }
+
+    private boolean hasNumericId() {
+        return idHigh != 0 || idLow != 0;
     }
 
     public double getAmount() {
@@ -85,7 +121,7 @@ public class Transaction {
 
     @Override
     public String toString() {
-        return "Transaction [transactionId=" + transactionId + ", amount=" + amount + ", date=" + date + ", type=" + type
+        return "Transaction [transactionId=" + getTransactionId() + ", amount=" + amount + ", date=" + date + ", type=" + type
                 + ", sourceAccountNo=" + sourceAccountNo + ", destinationAccountNo=" + destinationAccountNo + "]";
     }
 }
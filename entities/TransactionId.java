@@ -0,0 +1,124 @@
+package entities;
+
+import java.util.UUID;
+
+public final class TransactionId implements Comparable<TransactionId> {
+    private static final int CANONICAL_LENGTH = 36;
+
+    private final long high;
+    private final long low;
+    private final String legacyId;
+
+    private TransactionId(long high, long low, String legacyId) {
+        this.high = high;
+        this.low = low;
+        this.legacyId = legacyId;
+    }
+
+    public static TransactionId of(long high, long low) {
+        if (high == 0 && low == 0) {
+            return new TransactionId(0, 0, format(0, 0));
+        }
+        return new TransactionId(high, low, null);
+    }
+
+    public static TransactionId parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.length() != CANONICAL_LENGTH) {
+            return new TransactionId(0, 0, value);
+        }
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < CANONICAL_LENGTH; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return new TransactionId(0, 0, value);
+                }
+                continue;
+            }
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else {
+                return new TransactionId(0, 0, value);
+            }
+            if (digits++ < 16) {
+                high = (high << 4) | digit;
+            } else {
+                low = (low << 4) | digit;
+            }
+        }
+        return of(high, low);
+    }
+
+    public static String format(long high, long low) {
+        return new UUID(high, low).toString();
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public boolean isLegacy() {
+        return legacyId != null;
+    }
+
+    public String getLegacyId() {
+        return legacyId;
+    }
+
+    public long getTimestampMillis() {
+        return legacyId == null ? high >>> 16 : 0;
+    }
+
+    @Override
+    public int compareTo(TransactionId other) {
+        if (legacyId != null || other.legacyId != null) {
+            if (legacyId == null) {
+                return -1;
+            }
+            return other.legacyId == null ? 1 : legacyId.compareTo(other.legacyId);
+        }
+        int result = Long.compareUnsigned(high, other.high);
+        return result != 0 ? result : Long.compareUnsigned(low, other.low);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TransactionId)) {
+            return false;
+        }
+        TransactionId other = (TransactionId) obj;
+        if (legacyId != null) {
+            return legacyId.equals(other.legacyId);
+        }
+        return other.legacyId == null && high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        if (legacyId != null) {
+            return legacyId.hashCode();
+        }
+        long hash = high * 0x9E3779B97F4A7C15L ^ low;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return legacyId != null ? legacyId : format(high, low);
+    }
+}
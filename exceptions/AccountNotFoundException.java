@@ -1,5 +1,9 @@
 package exceptions;
 
-public class AccountNotFoundException {
+public class AccountNotFoundException extends Exception {
+    private static final long serialVersionUID = 1L;
 
+	public AccountNotFoundException(String message) {
+        super(message);
+    }
 }
@@ -1,5 +1,9 @@
 package exceptions;
 
-public class InvalidTransactionException {
+public class InvalidTransactionException extends Exception {
+    private static final long serialVersionUID = 1L;
 
+	public InvalidTransactionException(String message) {
+        super(message);
+    }
 }
@@ -1,9 +0,0 @@
-package exceptions;
-
-public class InvalidTransactionMatrixDataException extends Exception {
-    private static final long serialVersionUID = 1L;
-
-	public InvalidTransactionMatrixDataException(String message) {
-        super(message);
-    }
-}
@@ -0,0 +1,79 @@
+package benchmarks.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import entities.Account;
+import exceptions.InsufficientFundsException;
+import exceptions.InvalidAmountException;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountBenchmark {
+    private static final int INDEX_COUNT = 1 << 14;
+
+    @Param({"1000", "100000"})
+    public int accountCount;
+
+    private Account[] accounts;
+    private int[] sourceIndexes;
+    private int[] destinationIndexes;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        List<Account> accountList = BenchmarkData.accounts(accountCount);
+        accounts = accountList.toArray(new Account[0]);
+        java.util.Random random = new java.util.Random(7);
+        sourceIndexes = new int[INDEX_COUNT];
+        destinationIndexes = new int[INDEX_COUNT];
+        for (int i = 0; i < INDEX_COUNT; i++) {
+            sourceIndexes[i] = random.nextInt(accountCount);
+            destinationIndexes[i] = random.nextInt(accountCount);
+        }
+    }
+
+    @Benchmark
+    public void depositThenWithdraw(Cursor cursor) throws InvalidAmountException, InsufficientFundsException {
+        cursor.next = (cursor.next + 1) & (INDEX_COUNT - 1);
+        Account account = accounts[sourceIndexes[cursor.next]];
+        account.deposit(10);
+        account.withdraw(10);
+    }
+
+    @Benchmark
+    public void transferTo(Cursor cursor) throws InvalidAmountException, InsufficientFundsException {
+        cursor.next = (cursor.next + 1) & (INDEX_COUNT - 1);
+        Account source = accounts[sourceIndexes[cursor.next]];
+        Account destination = accounts[destinationIndexes[cursor.next]];
+        source.transferTo(destination, 1);
+        destination.transferTo(source, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void transferToContended(Cursor cursor) throws InvalidAmountException, InsufficientFundsException {
+        transferTo(cursor);
+    }
+}
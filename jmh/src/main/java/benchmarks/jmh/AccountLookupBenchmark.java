@@ -0,0 +1,62 @@
+package benchmarks.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import engine.TransactionEngine;
+import entities.Account;
+import utils.AccountRegistry;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountLookupBenchmark {
+    private static final int KEY_COUNT = 1 << 14;
+
+    @Param({"1000", "100000", "1000000"})
+    public int accountCount;
+
+    private AccountRegistry registry;
+    private TransactionEngine engine;
+    private String[] keys;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        registry = new AccountRegistry(BenchmarkData.accounts(accountCount));
+        engine = TransactionEngine.inMemory();
+        for (Account account : registry) {
+            engine.getAccounts().add(account);
+        }
+        keys = BenchmarkData.randomAccountNumbers(accountCount, KEY_COUNT, 42);
+    }
+
+    private String nextKey() {
+        next = (next + 1) & (KEY_COUNT - 1);
+        return keys[next];
+    }
+
+    @Benchmark
+    public Account findAccountByNumber() {
+        return registry.findAccountByNumber(nextKey());
+    }
+
+    @Benchmark
+    public boolean engineAccountExists() {
+        return engine.accountExists(nextKey());
+    }
+}
@@ -0,0 +1,59 @@
+package benchmarks.jmh;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import entities.Account;
+import entities.Transaction;
+import entities.TransactionId;
+import utils.TransactionType;
+
+final class BenchmarkData {
+    private static final TransactionType[] TYPES = {TransactionType.DEPOSIT, TransactionType.WITHDRAWAL, TransactionType.TRANSFER};
+
+    private BenchmarkData() {
+    }
+
+    static String accountNo(int index) {
+        return "RO" + index;
+    }
+
+    static List<Account> accounts(int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(new Account(accountNo(i), "Owner " + i, 1_000_000));
+        }
+        return accounts;
+    }
+
+    static List<Transaction> transactions(int accountCount, int count, long seed) {
+        Random random = new Random(seed);
+        List<Transaction> transactions = new ArrayList<>(count);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            TransactionType type = TYPES[random.nextInt(TYPES.length)];
+            TransactionId id = TransactionId.of(random.nextLong(), random.nextLong());
+            double amount = 1 + random.nextInt(100_000) / 100.0;
+            Date date = new Date(now - random.nextInt(365 * 24 * 3600) * 1000L);
+            String source = accountNo(random.nextInt(accountCount));
+            if (type == TransactionType.TRANSFER) {
+                int destination = random.nextInt(accountCount);
+                transactions.add(new Transaction(id, amount, date, type, source, accountNo(destination)));
+            } else {
+                transactions.add(new Transaction(id, amount, date, type, source));
+            }
+        }
+        return transactions;
+    }
+
+    static String[] randomAccountNumbers(int accountCount, int count, long seed) {
+        Random random = new Random(seed);
+        String[] accountNumbers = new String[count];
+        for (int i = 0; i < count; i++) {
+            accountNumbers[i] = accountNo(random.nextInt(accountCount));
+        }
+        return accountNumbers;
+    }
+}
@@ -0,0 +1,120 @@
+package benchmarks.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import entities.Account;
+import entities.Transaction;
+import utils.AccountRegistry;
+import utils.FileManager;
+import utils.JsonFormat;
+import utils.TransactionLog;
+import utils.TransactionMatrix;
+import utils.TransactionStatistics;
+import utils.ViewCheckpoint;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class FileManagerBenchmark {
+    @Param({"1000", "100000"})
+    public int accountCount;
+
+    @Param({"100000", "1000000"})
+    public int transactionCount;
+
+    @Param({"PRETTY", "COMPACT", "GZIP"})
+    public JsonFormat format;
+
+    private Path directory;
+    private String accountsFile;
+    private String transactionsFile;
+    private String viewsFile;
+    private List<Account> accounts;
+    private AccountRegistry registry;
+    private List<Transaction> transactions;
+    private TransactionLog log;
+    private ViewCheckpoint views;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("filemanager-benchmark");
+        accountsFile = directory.resolve("accounts.json").toString();
+        transactionsFile = directory.resolve("transactions.json").toString();
+        viewsFile = directory.resolve("views.checkpoint").toString();
+
+        accounts = BenchmarkData.accounts(accountCount);
+        registry = new AccountRegistry(accounts);
+        transactions = BenchmarkData.transactions(accountCount, transactionCount, 5);
+        log = new TransactionLog();
+        log.addAll(transactions);
+        TransactionStatistics statistics = new TransactionStatistics(0, false);
+        statistics.addTransactions(log.cursor());
+        TransactionMatrix matrix = new TransactionMatrix(registry);
+        matrix.recordTransactions(log.cursor());
+        views = ViewCheckpoint.capture(log, statistics, matrix);
+
+        FileManager.saveAccountsToJSON(accounts, accountsFile, format);
+        FileManager.saveTransactionsToJSON(transactions, transactionsFile, format);
+        views.write(viewsFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (File file : directory.toFile().listFiles()) {
+            file.delete();
+        }
+        directory.toFile().delete();
+    }
+
+    @Benchmark
+    public AccountRegistry loadAccounts() {
+        return FileManager.loadAccountsFromJSON(accountsFile);
+    }
+
+    @Benchmark
+    public void saveAccounts() {
+        FileManager.saveAccountsToJSON(accounts, accountsFile, format);
+    }
+
+    @Benchmark
+    public List<Transaction> loadTransactions() {
+        return FileManager.loadTransactionsFromJSON(transactionsFile, registry);
+    }
+
+    @Benchmark
+    public void saveTransactions() {
+        FileManager.saveTransactionsToJSON(transactions, transactionsFile, format);
+    }
+
+    @Benchmark
+    public TransactionMatrix loadViewCheckpoint() {
+        return ViewCheckpoint.load(viewsFile, log).getMatrix(registry);
+    }
+
+    @Benchmark
+    public void saveViewCheckpoint() throws IOException {
+        views.write(viewsFile);
+    }
+}
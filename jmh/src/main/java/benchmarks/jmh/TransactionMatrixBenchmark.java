@@ -0,0 +1,94 @@
+package benchmarks.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import entities.Account;
+import entities.Transaction;
+import utils.AccountRegistry;
+import utils.CsrMatrix;
+import utils.TransactionMatrix;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionMatrixBenchmark {
+    @Param({"1000", "100000"})
+    public int accountCount;
+
+    @Param({"100000", "1000000"})
+    public int transactionCount;
+
+    private AccountRegistry registry;
+    private TransactionMatrix matrix;
+    private String[] sources;
+    private String[] destinations;
+    private double[] amounts;
+    private int next;
+    private int nextAccount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = new AccountRegistry(BenchmarkData.accounts(accountCount));
+        List<Transaction> transactions = BenchmarkData.transactions(accountCount, transactionCount, 11);
+        sources = new String[transactionCount];
+        destinations = new String[transactionCount];
+        amounts = new double[transactionCount];
+        for (int i = 0; i < transactionCount; i++) {
+            sources[i] = transactions.get(i).getSourceAccountNo();
+            destinations[i] = BenchmarkData.accountNo(i % accountCount);
+            amounts[i] = transactions.get(i).getAmount();
+        }
+        matrix = new TransactionMatrix(registry);
+        for (int i = 0; i < transactionCount; i++) {
+            matrix.recordTransaction(sources[i], destinations[i], amounts[i]);
+        }
+        nextAccount = accountCount;
+    }
+
+    @Benchmark
+    public void recordTransaction() {
+        next = next + 1 == transactionCount ? 0 : next + 1;
+        matrix.recordTransaction(sources[next], destinations[next], amounts[next]);
+    }
+
+    @Benchmark
+    public void addAccount() {
+        matrix.addAccount(new Account(BenchmarkData.accountNo(nextAccount++), "New owner", 0));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public TransactionMatrix updateAccounts() {
+        TransactionMatrix fresh = new TransactionMatrix(new AccountRegistry());
+        fresh.updateAccounts(registry);
+        return fresh;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public CsrMatrix freezeToCsr() {
+        matrix.recordTransaction(sources[0], destinations[0], 1);
+        return matrix.getCsrMatrix();
+    }
+}
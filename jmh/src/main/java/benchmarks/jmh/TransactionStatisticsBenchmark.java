@@ -0,0 +1,78 @@
+package benchmarks.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.TransactionStatistics;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionStatisticsBenchmark {
+    @Param({"10000", "1000000"})
+    public int transactionCount;
+
+    @Param({"true", "false"})
+    public boolean retainAmounts;
+
+    private TransactionStatistics statistics;
+
+    @Setup
+    public void setUp() {
+        statistics = new TransactionStatistics(1000, retainAmounts);
+        Random random = new Random(3);
+        for (int i = 0; i < transactionCount; i++) {
+            statistics.addTransactionAmount(1 + random.nextInt(100_000) / 100.0);
+        }
+    }
+
+    @Benchmark
+    public double getTotalAmount() {
+        return statistics.getTotalAmount();
+    }
+
+    @Benchmark
+    public double getAverageAmount() {
+        return statistics.getAverageAmount();
+    }
+
+    @Benchmark
+    public double getMaxAmount() {
+        return statistics.getMaxAmount();
+    }
+
+    @Benchmark
+    public double getMinAmount() {
+        return statistics.getMinAmount();
+    }
+
+    @Benchmark
+    public double getStandardDeviation() {
+        return statistics.getStandardDeviation();
+    }
+
+    @Benchmark
+    public double getPercentile99() {
+        return statistics.getPercentile(99);
+    }
+
+    @Benchmark
+    public void addTransactionAmount() {
+        statistics.addTransactionAmount(42.5);
+    }
+}
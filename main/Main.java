@@ -1,43 +1,94 @@
 package main;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import entities.Account;
-import entities.Transaction;
+import engine.Checkpointer;
+import engine.TransactionEngine;
+import metrics.Metrics;
+import utils.AccountDictionary;
+import utils.AccountRegistry;
+import utils.BinarySnapshot;
 import utils.FileManager;
-import utils.TransactionMatrix;
-import utils.TransactionStatistics;
+import utils.OffHeapChunkStore;
+import utils.TransactionIdGenerator;
+import utils.TransactionJournal;
+import utils.TransactionLog;
+import utils.ViewCheckpoint;
 
 public class Main {
-    private static List<Account> accountList = new ArrayList<>();
-    private static List<Transaction> transactionList = new ArrayList<Transaction>();
+    private static final String JOURNAL_FILE = "transactions.journal";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String VIEWS_FILE = "views.checkpoint";
+    private static final int JOURNAL_BATCH_SIZE = Integer.getInteger("ebanking.journal.batchSize", 64);
+    private static final long JOURNAL_FLUSH_INTERVAL_MILLIS = Long.getLong("ebanking.journal.flushIntervalMillis", 200L);
+    private static final long JOURNAL_COMPACTION_THRESHOLD = Long.getLong("ebanking.journal.compactionThreshold", 10_000L);
+    private static final long CHECKPOINT_INTERVAL_SECONDS = Long.getLong("ebanking.checkpoint.intervalSeconds", 30L);
+    private static final String TRANSACTION_ID_GENERATOR = System.getProperty("ebanking.transactionIds", "time-ordered");
+    private static final String TRANSACTION_LOG_STORAGE = System.getProperty("ebanking.transactionLog.storage", "heap");
+    private static final String TRANSACTION_LOG_MAPPED_FILE = System.getProperty("ebanking.transactionLog.mappedFile", "transactions.offheap");
+    private static final int TRANSACTION_LOG_HOT_CHUNKS = Integer.getInteger("ebanking.transactionLog.hotChunks", 16);
+    private static final String INTEREST_TIERS = System.getProperty("ebanking.interest.tiers", "0:0.0005,10000:0.001,100000:0.0015");
+    private static final String METRICS_FILE = "metrics.log";
+    private static final boolean LOAD_CONCURRENTLY = Runtime.getRuntime().availableProcessors() > 1;
+    private static final long METRICS_DUMP_INTERVAL_SECONDS = Long.getLong("ebanking.metrics.dumpIntervalSeconds", 0L);
+
+    private static AccountRegistry accountRegistry = new AccountRegistry();
+    private static TransactionLog transactionList;
     private static Scanner scanner = new Scanner(System.in);
-    static TransactionMatrix transactionMatrix;
-    
-    static double[] transactionAmounts = new double[1000];
-    static int transactionCount = 0;
-    static TransactionStatistics transactionStatistics = new TransactionStatistics(1000);
+    private static TransactionJournal transactionJournal;
+    private static TransactionEngine engine;
+    private static Checkpointer checkpointer;
+    private static long snapshotSequence;
+    private static long accountsLoadedNanos;
 
     public static void main(String[] args) {
-        accountList = FileManager.loadAccountsFromJSON("accounts.json");
-        transactionList = FileManager.loadTransactionsFromJSON("transactions.json", accountList);
-        transactionStatistics = FileManager.loadTransactionAmounts("transactionAmounts.json");
-        transactionMatrix = FileManager.loadTransactionMatrix(accountList, "transactionMatrix.json");
-        
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            FileManager.saveAccountsToJSON(accountList, "accounts.json");
-            FileManager.saveTransactionsToJSON(transactionList, "transactions.json");
-            FileManager.saveTransactionAmounts(
-                    transactionStatistics.getTransactionAmounts(),
-                    transactionStatistics.getTransactionCount(),
-                    "transactionAmounts.json"
-                );
-            FileManager.saveTransactionMatrix(transactionMatrix, "transactionMatrix.json");
+        long startNanos = System.nanoTime();
+        Metrics.registerMBean();
+        Metrics.startPeriodicDump(METRICS_FILE, METRICS_DUMP_INTERVAL_SECONDS);
+        ExecutorService loader = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "startup-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<Void> backgroundStart = LOAD_CONCURRENTLY ? CompletableFuture.completedFuture(null) : new CompletableFuture<>();
+        loadAccountsAndTransactions();
+        long transactionsLoadedNanos = System.nanoTime();
+        engine = TransactionEngine.withDeferredViews(accountRegistry, transactionList);
+        engine.setTransactionIdGenerator(TransactionIdGenerator.create(TRANSACTION_ID_GENERATOR));
+        TransactionLog loadedTransactions = transactionList;
+        engine.loadViewsInBackground(backgroundStart.thenApplyAsync(ignored -> ViewCheckpoint.load(VIEWS_FILE, loadedTransactions), loader), loader);
+
+        checkpointer = new Checkpointer(engine, JOURNAL_FILE, SNAPSHOT_FILE, VIEWS_FILE, JOURNAL_COMPACTION_THRESHOLD);
+        long replayedRecords = checkpointer.recover(snapshotSequence);
+        if (replayedRecords > 0) {
+            System.out.println("Recovered " + replayedRecords + " records from checkpoints and " + JOURNAL_FILE);
+        }
+        long recoveredNanos = System.nanoTime();
+        try {
+            transactionJournal = new TransactionJournal(JOURNAL_FILE, JOURNAL_BATCH_SIZE, JOURNAL_FLUSH_INTERVAL_MILLIS);
+        } catch (IOException e) {
+            System.out.println("Error opening transaction journal " + JOURNAL_FILE + ": " + e.getMessage());
+            return;
+        }
+        engine.setJournal(transactionJournal);
+        checkpointer.start(CHECKPOINT_INTERVAL_SECONDS);
+        reportStartup(startNanos, transactionsLoadedNanos, recoveredNanos);
+        backgroundStart.complete(null);
 
-            
-            System.out.println("Data saved successfully.");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Metrics.stopPeriodicDump();
+            checkpointer.close();
+            try {
+                transactionJournal.close();
+                System.out.println("Data saved successfully.");
+            } catch (IOException e) {
+                System.out.println("Error closing transaction journal: " + e.getMessage());
+            }
         }));
 
         boolean running = true;
@@ -46,31 +97,44 @@ public class Main {
             int choice = Operations.getUserChoice(scanner);
             switch (choice) {
                 case 1:
-                    Operations.createAccount(accountList, scanner);
+                    Operations.createAccount(engine, scanner);
                     break;
                 case 2:
-                    Operations.viewAccounts(accountList);
+                    Operations.viewAccounts(engine);
                     break;
                 case 3:
-                    Operations.depositFunds(accountList, transactionList, scanner);
+                    Operations.depositFunds(engine, scanner);
                     break;
                 case 4:
-                	Operations.withdrawFunds(accountList, transactionList, scanner);
+                	Operations.withdrawFunds(engine, scanner);
                 	break;
                 case 5:
-                	Operations.transferFunds(accountList, transactionList, transactionMatrix, scanner);
+                	Operations.transferFunds(engine, scanner);
                 	break;
                 case 6:
-                	Operations.displayTransactionStatistics(Main.transactionStatistics);
+                	try {
+                	    Operations.displayTransactionStatistics(engine.getStatistics());
+                	    Operations.displayRollingStatistics(engine.getRollingStatistics());
+                	} catch (IllegalStateException e) {
+                	    System.out.println("Error: " + e.getMessage());
+                	}
                 	break;
                 case 7:
-                	transactionMatrix.displayTransactionMatrix();
+                	try {
+                	    engine.getTransactionMatrix().displayTransactionMatrix();
+                	} catch (IllegalStateException e) {
+                	    System.out.println("Error: " + e.getMessage());
+                	}
                 	break;
                 case 8:
-                	// TO DO: validare date (si de la tastatura si din fisiere), interfata grafica, documentatie word
+                	Operations.applyInterest(engine, INTEREST_TIERS, scanner);
                 	break;
                 case 9:
-                	// generare statistici si rapoarte
+                	try {
+                	    Operations.transactionHistory(engine, scanner);
+                	} catch (IllegalStateException e) {
+                	    System.out.println("Error: " + e.getMessage());
+                	}
                 	break;
                 case 10:
                     running = false;
@@ -84,4 +148,62 @@ public class Main {
 
         scanner.close();
     }
+
+    private static void reportStartup(long startNanos, long transactionsLoadedNanos, long recoveredNanos) {
+        long readyNanos = System.nanoTime();
+        Metrics.timer("startup.accounts").record(accountsLoadedNanos - startNanos);
+        Metrics.timer("startup.transactions").record(transactionsLoadedNanos - accountsLoadedNanos);
+        Metrics.timer("startup.recovery").record(recoveredNanos - transactionsLoadedNanos);
+        Metrics.timer("startup.ready").record(readyNanos - startNanos);
+        System.out.printf("Startup: accounts %.1f ms, transactions %.1f ms, recovery %.1f ms, ready after %.1f ms. Statistics and the transaction matrix %s in the background.%n",
+                (accountsLoadedNanos - startNanos) / 1e6, (transactionsLoadedNanos - accountsLoadedNanos) / 1e6,
+                (recoveredNanos - transactionsLoadedNanos) / 1e6, (readyNanos - startNanos) / 1e6, LOAD_CONCURRENTLY ? "finish loading" : "now load");
+    }
+
+    private static TransactionLog newTransactionLog() {
+        OffHeapChunkStore offHeapStore = null;
+        if (TRANSACTION_LOG_STORAGE.equalsIgnoreCase("direct")) {
+            offHeapStore = OffHeapChunkStore.direct(TransactionLog.CHUNK_BYTES);
+        } else if (TRANSACTION_LOG_STORAGE.equalsIgnoreCase("mapped")) {
+            try {
+                offHeapStore = OffHeapChunkStore.mapped(TransactionLog.CHUNK_BYTES, Paths.get(TRANSACTION_LOG_MAPPED_FILE));
+            } catch (IOException e) {
+                System.out.println("Warning: could not open " + TRANSACTION_LOG_MAPPED_FILE + ", keeping transactions on the heap: " + e.getMessage());
+            }
+        } else if (!TRANSACTION_LOG_STORAGE.equalsIgnoreCase("heap")) {
+            System.out.println("Warning: Unknown transaction log storage '" + TRANSACTION_LOG_STORAGE + "', keeping transactions on the heap.");
+        }
+        if (offHeapStore == null) {
+            return new TransactionLog();
+        }
+        return new TransactionLog(new AccountDictionary(), offHeapStore, TRANSACTION_LOG_HOT_CHUNKS);
+    }
+
+    private static void loadAccountsAndTransactions() {
+        if (BinarySnapshot.exists(SNAPSHOT_FILE)) {
+            try {
+                AccountRegistry snapshotAccounts = new AccountRegistry();
+                TransactionLog snapshotTransactions = newTransactionLog();
+                snapshotSequence = BinarySnapshot.load(SNAPSHOT_FILE, snapshotAccounts::add, transaction -> {
+                    if (accountsLoadedNanos == 0) {
+                        accountsLoadedNanos = System.nanoTime();
+                    }
+                    snapshotTransactions.add(transaction);
+                });
+                accountRegistry = snapshotAccounts;
+                transactionList = snapshotTransactions;
+                if (accountsLoadedNanos == 0) {
+                    accountsLoadedNanos = System.nanoTime();
+                }
+                System.out.println("Accounts and transactions loaded from " + SNAPSHOT_FILE);
+                return;
+            } catch (IOException e) {
+                System.out.println("Warning: " + e.getMessage() + " Falling back to JSON files.");
+            }
+        }
+        accountRegistry = FileManager.loadAccountsFromJSON("accounts.json");
+        accountsLoadedNanos = System.nanoTime();
+        transactionList = newTransactionLog();
+        FileManager.loadTransactionsFromJSON("transactions.json", accountRegistry, transactionList::add, FileManager.consoleProgress("transactions.json"));
+    }
 }
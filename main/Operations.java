@@ -1,23 +1,36 @@
 package main;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Scanner;
-import java.util.UUID;
+import java.util.function.IntFunction;
 
+import engine.InterestAccrual;
+import engine.TransactionEngine;
+import engine.TransactionResult;
 import entities.Account;
 import entities.Transaction;
-import exceptions.InsufficientFundsException;
-import exceptions.InvalidAmountException;
-import utils.TransactionMatrix;
+import utils.InterestTiers;
+import utils.ReconciliationReport;
+import utils.ReportWriter;
+import utils.RollingStatistics;
+import utils.TransactionPage;
+import utils.TransactionReport;
 import utils.TransactionStatistics;
 import utils.TransactionType;
+import utils.TransferGraph;
 
 public class Operations {
-	
-	private static String generateTransactionId() {
-	    return UUID.randomUUID().toString();
-	}
+	private static final int PAGE_SIZE = 20;
+	private static final int TOP_ACCOUNTS = 10;
+	private static final String REPORT_DIRECTORY = "reports";
+	private static final String REPORT_FILE = "report.json";
+	private static final String RECONCILIATION_FILE = "reconciliation.csv";
 	
 	static void displayMenu() {
         System.out.println("\n=== E-Banking System ===");
@@ -28,6 +41,8 @@ public class Operations {
         System.out.println("5. Transfer Funds to Another Account");
         System.out.println("6. Display Transaction Statistics");
         System.out.println("7. Display Transaction Matrix");
+        System.out.println("8. Apply Monthly Interest");
+        System.out.println("9. Transaction History and Reports");
         System.out.println("10. Exit");
         System.out.print("Please select an option: ");
     }
@@ -42,12 +57,12 @@ public class Operations {
         return choice;
     }
 	
-	static void createAccount(List<Account> accountList, Scanner scanner) {
+	static void createAccount(TransactionEngine engine, Scanner scanner) {
         System.out.println("\n--- Create New Account ---");
         try {
             System.out.print("Enter Account Number: ");
             String accountNo = scanner.nextLine().trim();
-            if (accountExists(accountNo, accountList)) {
+            if (engine.accountExists(accountNo)) {
                 System.out.println("An account with this number already exists.");
                 return;
             }
@@ -58,55 +73,36 @@ public class Operations {
             System.out.print("Enter Initial Balance: ");
             double balance = Double.parseDouble(scanner.nextLine());
 
-            Account newAccount = new Account(accountNo, owner, balance);
-            accountList.add(newAccount);
-            Main.transactionMatrix.updateAccounts(accountList);
-            System.out.println("Account created successfully!");
+            TransactionResult result = engine.createAccount(accountNo, owner, balance);
+            if (result.isSuccessful()) {
+                System.out.println(result.getMessage());
+            } else {
+                System.out.println("Error creating account: " + result.getMessage());
+            }
 
         } catch (NumberFormatException e) {
             System.out.println("Invalid input for balance. Please enter a valid number.");
-        } catch (IllegalArgumentException e) {
-            System.out.println("Error creating account: " + e.getMessage());
         }
     }
 	
-	private static boolean accountExists(String accountNo, List<Account> accountList) {
-        for (Account account : accountList) {
-            if (account.getAccountNo().equals(accountNo)) {
-                return true;
-            }
-        }
-        return false;
-    }
-	
-	static void viewAccounts(List<Account> accountList) {
+	static void viewAccounts(TransactionEngine engine) {
 	        System.out.println("\n--- List of Accounts ---");
-	        if (accountList.isEmpty()) {
+	        if (engine.getAccounts().isEmpty()) {
 	            System.out.println("No accounts found.");
 	            return;
 	        }
-	        for (Account account : accountList) {
+	        for (Account account : engine.getAccounts()) {
 	            System.out.println(account);
 	        }
 	 }
 	 
-	private static Account findAccountByNumber(String accountNo, List<Account> accountList) {
-		    for (Account account : accountList) {
-		        if (account.getAccountNo().equals(accountNo)) {
-		            return account;
-		        }
-		    }
-		    return null;
-		}
-	 
-	static void depositFunds(List<Account> accountList, List<Transaction> transactionList, Scanner scanner) {
+	static void depositFunds(TransactionEngine engine, Scanner scanner) {
 		    System.out.println("\n--- Deposit Funds ---");
 		    try {
 		        System.out.print("Enter Account Number: ");
 		        String accountNo = scanner.nextLine().trim();
 
-		        Account account = findAccountByNumber(accountNo, accountList);
-		        if (account == null) {
+		        if (!engine.accountExists(accountNo)) {
 		            System.out.println("Account not found.");
 		            return;
 		        }
@@ -114,34 +110,19 @@ public class Operations {
 		        System.out.print("Enter Amount to Deposit: ");
 		        double amount = Double.parseDouble(scanner.nextLine());
 
-		        account.deposit(amount);
-
-		        Transaction transaction = new Transaction(
-		            generateTransactionId(),
-		            amount,
-		            new Date(),
-		            TransactionType.DEPOSIT,
-		            accountNo
-		        );
-		        transactionList.add(transaction);
-		        Main.transactionStatistics.addTransactionAmount(amount);
-
-		        System.out.println("Deposit successful.");
+		        printResult(engine.deposit(accountNo, amount));
 		    } catch (NumberFormatException e) {
 		        System.out.println("Invalid amount. Please enter a valid number.");
-		    } catch (InvalidAmountException e) {
-		        System.out.println("Error: " + e.getMessage());
 		    }
 	 }
 	 
-	static void withdrawFunds(List<Account> accountList, List<Transaction> transactionList, Scanner scanner) {
+	static void withdrawFunds(TransactionEngine engine, Scanner scanner) {
 		    System.out.println("\n--- Withdraw Funds ---");
 		    try {
 		        System.out.print("Enter Account Number: ");
 		        String accountNo = scanner.nextLine().trim();
 
-		        Account account = findAccountByNumber(accountNo, accountList);
-		        if (account == null) {
+		        if (!engine.accountExists(accountNo)) {
 		            System.out.println("Account not found.");
 		            return;
 		        }
@@ -149,34 +130,19 @@ public class Operations {
 		        System.out.print("Enter Amount to Withdraw: ");
 		        double amount = Double.parseDouble(scanner.nextLine());
 
-		        account.withdraw(amount);
-
-		        Transaction transaction = new Transaction(
-		            generateTransactionId(),
-		            amount,
-		            new Date(),
-		            TransactionType.WITHDRAWAL,
-		            accountNo
-		        );
-		        transactionList.add(transaction);
-		        Main.transactionStatistics.addTransactionAmount(amount);
-
-		        System.out.println("Withdrawal successful.");
+		        printResult(engine.withdraw(accountNo, amount));
 		    } catch (NumberFormatException e) {
 		        System.out.println("Invalid amount. Please enter a valid number.");
-		    } catch (InvalidAmountException | InsufficientFundsException e) {
-		        System.out.println("Error: " + e.getMessage());
 		    }
 	 }
 	 
-	static void transferFunds(List<Account> accountList, List<Transaction> transactionList, TransactionMatrix transactionMatrix, Scanner scanner) {
+	static void transferFunds(TransactionEngine engine, Scanner scanner) {
 		    System.out.println("\n--- Transfer Funds ---");
 		    try {
 		        System.out.print("Enter Source Account Number: ");
 		        String sourceAccountNo = scanner.nextLine().trim();
 
-		        Account sourceAccount = findAccountByNumber(sourceAccountNo, accountList);
-		        if (sourceAccount == null) {
+		        if (!engine.accountExists(sourceAccountNo)) {
 		            System.out.println("Source account not found.");
 		            return;
 		        }
@@ -184,8 +150,7 @@ public class Operations {
 		        System.out.print("Enter Destination Account Number: ");
 		        String destinationAccountNo = scanner.nextLine().trim();
 
-		        Account destinationAccount = findAccountByNumber(destinationAccountNo, accountList);
-		        if (destinationAccount == null) {
+		        if (!engine.accountExists(destinationAccountNo)) {
 		            System.out.println("Destination account not found.");
 		            return;
 		        }
@@ -198,30 +163,195 @@ public class Operations {
 		        System.out.print("Enter Amount to Transfer: ");
 		        double amount = Double.parseDouble(scanner.nextLine());
 
-		        sourceAccount.withdraw(amount);
-		        destinationAccount.deposit(amount);
-
-		        Transaction transaction = new Transaction(
-		            generateTransactionId(),
-		            amount,
-		            new Date(),
-		            TransactionType.TRANSFER,
-		            sourceAccountNo,
-		            destinationAccountNo
-		        );
-		        transactionList.add(transaction);
-		        Main.transactionStatistics.addTransactionAmount(amount);
-		        
-		        transactionMatrix.recordTransaction(sourceAccountNo, destinationAccountNo, amount);
-
-		        System.out.println("Transfer successful.");
+		        printResult(engine.transfer(sourceAccountNo, destinationAccountNo, amount));
 		    } catch (NumberFormatException e) {
 		        System.out.println("Invalid amount. Please enter a valid number.");
-		    } catch (InvalidAmountException | InsufficientFundsException e) {
-		        System.out.println("Error: " + e.getMessage());
 		    }
 	 }
 
+	static void applyInterest(TransactionEngine engine, String interestTiers, Scanner scanner) {
+	    System.out.println("\n--- Apply Monthly Interest ---");
+	    InterestTiers tiers;
+	    try {
+	        tiers = InterestTiers.parse(interestTiers);
+	    } catch (IllegalArgumentException e) {
+	        System.out.println("Error: " + e.getMessage());
+	        return;
+	    }
+	    System.out.println("Rate tiers: " + tiers);
+	    System.out.print("Apply interest to " + engine.getAccounts().size() + " accounts? (y/n): ");
+	    if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+	        System.out.println("Interest was not applied.");
+	        return;
+	    }
+	    InterestAccrual.Result result;
+	    try {
+	        result = engine.accrueInterest(tiers);
+	    } catch (UncheckedIOException e) {
+	        System.out.println("Error: Interest accrual stopped. " + e.getMessage());
+	        return;
+	    }
+	    System.out.printf("Interest of %.2f credited to %d of %d accounts in %.1f ms.%n", result.getTotalInterest(), result.getCreditedCount(),
+	            result.getAccountCount(), result.getElapsedNanos() / 1e6);
+	}
+
+	static void transactionHistory(TransactionEngine engine, Scanner scanner) {
+	    System.out.println("\n--- Transaction History ---");
+	    System.out.println("1. Account History");
+	    System.out.println("2. Transactions Between Two Dates");
+	    System.out.println("3. Generate Reports");
+	    System.out.println("4. Transfer Graph Analytics");
+	    System.out.println("5. Reconcile Balances");
+	    System.out.print("Please select an option: ");
+	    int choice = getUserChoice(scanner);
+	    if (choice == 1) {
+	        System.out.print("Enter Account Number: ");
+	        String accountNo = scanner.nextLine().trim();
+	        if (!engine.accountExists(accountNo)) {
+	            System.out.println("Account not found.");
+	            return;
+	        }
+	        printPages(offset -> engine.getAccountHistory(accountNo, offset, PAGE_SIZE), scanner);
+	    } else if (choice == 2) {
+	        try {
+	            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+	            format.setLenient(false);
+	            System.out.print("Enter Start Date (yyyy-MM-dd): ");
+	            Date from = format.parse(scanner.nextLine().trim());
+	            System.out.print("Enter End Date (yyyy-MM-dd): ");
+	            Calendar to = Calendar.getInstance();
+	            to.setTime(format.parse(scanner.nextLine().trim()));
+	            to.add(Calendar.DAY_OF_MONTH, 1);
+	            printPages(offset -> engine.getTransactionsBetween(from, to.getTime(), offset, PAGE_SIZE), scanner);
+	        } catch (ParseException e) {
+	            System.out.println("Invalid date. Please use the format yyyy-MM-dd.");
+	        }
+	    } else if (choice == 3) {
+	        generateReports(engine, scanner);
+	    } else if (choice == 4) {
+	        transferGraphAnalytics(engine, scanner);
+	    } else if (choice == 5) {
+	        reconcile(engine);
+	    } else {
+	        System.out.println("Invalid choice. Please select a valid option.");
+	    }
+	}
+
+	private static void generateReports(TransactionEngine engine, Scanner scanner) {
+	    System.out.print("Enter Report Format (csv/json): ");
+	    String format = scanner.nextLine().trim().toLowerCase();
+	    if (!format.equals("csv") && !format.equals("json")) {
+	        System.out.println("Invalid format. Please enter csv or json.");
+	        return;
+	    }
+	    TransactionReport report = engine.generateReport(TOP_ACCOUNTS);
+	    System.out.printf("Report covers %d transactions, %d accounts and %d days (computed in %.1f ms).%n", report.getTransactionCount(),
+	            report.getAccountTotals().size(), report.getDailyVolumes().size(), report.getElapsedNanos() / 1e6);
+	    if (format.equals("csv")) {
+	        ReportWriter.writeCsv(report, REPORT_DIRECTORY);
+	    } else {
+	        ReportWriter.writeJson(report, REPORT_FILE);
+	    }
+	}
+
+	private static void transferGraphAnalytics(TransactionEngine engine, Scanner scanner) {
+	    TransferGraph graph = engine.getTransactionMatrix().getTransferGraph();
+	    System.out.println("Transfer graph: " + graph.getAccountCount() + " accounts, " + graph.getEdgeCount() + " transfer links");
+	    System.out.println("Largest net receivers:");
+	    for (int account : graph.getLargestNetReceivers(TOP_ACCOUNTS)) {
+	        System.out.printf("  %s\t%.2f%n", graph.getAccountNo(account), graph.getNetFlow(account));
+	    }
+	    System.out.println("Largest net senders:");
+	    for (int account : graph.getLargestNetSenders(TOP_ACCOUNTS)) {
+	        System.out.printf("  %s\t%.2f%n", graph.getAccountNo(account), graph.getNetFlow(account));
+	    }
+	    List<List<String>> components = graph.findStronglyConnectedComponents(2);
+	    System.out.println("Strongly connected groups of accounts: " + components.size());
+	    for (int i = 0; i < Math.min(TOP_ACCOUNTS, components.size()); i++) {
+	        List<String> component = components.get(i);
+	        System.out.println("  " + component.size() + " accounts: " + String.join(", ", component.subList(0, Math.min(TOP_ACCOUNTS, component.size())))
+	                + (component.size() > TOP_ACCOUNTS ? ", ..." : ""));
+	    }
+	    TransferGraph.TransferCycles cycles = graph.findTransferCycles(TOP_ACCOUNTS);
+	    System.out.println("Three-account transfer cycles: " + cycles.getCount());
+	    for (TransferGraph.TransferCycle cycle : cycles.getLargestCycles()) {
+	        System.out.printf("  %s (at least %.2f around the loop)%n", cycle, cycle.getAmount());
+	    }
+	    System.out.print("Enter Account Number for top counterparties (leave empty to skip): ");
+	    String accountNo = scanner.nextLine().trim();
+	    if (accountNo.isEmpty()) {
+	        return;
+	    }
+	    List<TransferGraph.Counterparty> counterparties = graph.getTopCounterparties(accountNo, TOP_ACCOUNTS);
+	    if (counterparties.isEmpty()) {
+	        System.out.println("No transfers found for account " + accountNo + ".");
+	        return;
+	    }
+	    for (TransferGraph.Counterparty counterparty : counterparties) {
+	        System.out.printf("  %s\tsent %.2f\treceived %.2f%n", counterparty.getAccountNo(), counterparty.getSent(), counterparty.getReceived());
+	    }
+	}
+
+	private static void reconcile(TransactionEngine engine) {
+	    ReconciliationReport report;
+	    try {
+	        report = engine.reconcile(RECONCILIATION_FILE);
+	    } catch (IOException e) {
+	        System.out.println("Error: Could not write reconciliation report to " + RECONCILIATION_FILE + ": " + e.getMessage());
+	        return;
+	    }
+	    System.out.printf("Replayed %d transactions against %d accounts in %d passes (%.1f ms), %d matrix cells checked.%n", report.getTransactionCount(),
+	            report.getAccountCount(), report.getPassCount(), report.getElapsedNanos() / 1e6, report.getCheckedMatrixCells());
+	    if (report.getAccountsWithoutOpeningBalance() > 0) {
+	        System.out.println(report.getAccountsWithoutOpeningBalance() + " accounts have no recorded opening balance; only their implied opening balance was checked.");
+	    }
+	    if (report.isConsistent()) {
+	        System.out.println("No mismatches found.");
+	        return;
+	    }
+	    System.out.println("Mismatches found: " + report.getMismatchCount());
+	    for (ReconciliationReport.MismatchKind kind : ReconciliationReport.MismatchKind.values()) {
+	        if (report.getMismatchCount(kind) > 0) {
+	            System.out.println("  " + kind + ": " + report.getMismatchCount(kind));
+	        }
+	    }
+	    for (ReconciliationReport.Mismatch mismatch : report.getSampleMismatches()) {
+	        System.out.println("  " + mismatch);
+	    }
+	    System.out.println("All mismatches saved to " + RECONCILIATION_FILE);
+	}
+
+	private static void printPages(IntFunction<TransactionPage> pages, Scanner scanner) {
+	    int offset = 0;
+	    while (true) {
+	        TransactionPage page = pages.apply(offset);
+	        if (page.getTotalCount() == 0) {
+	            System.out.println("No transactions found.");
+	            return;
+	        }
+	        for (Transaction transaction : page.getTransactions()) {
+	            System.out.println(transaction);
+	        }
+	        System.out.println("Showing " + (page.getOffset() + 1) + "-" + page.getNextOffset() + " of " + page.getTotalCount());
+	        if (!page.hasNextPage()) {
+	            return;
+	        }
+	        System.out.print("Press Enter for the next page or q to stop: ");
+	        if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+	            return;
+	        }
+	        offset = page.getNextOffset();
+	    }
+	}
+
+	private static void printResult(TransactionResult result) {
+	    if (result.isSuccessful()) {
+	        System.out.println(result.getMessage());
+	    } else {
+	        System.out.println("Error: " + result.getMessage());
+	    }
+	}
+
 	static void displayTransactionStatistics(TransactionStatistics stats) {
 	    System.out.println("\n--- Transaction Statistics ---");
 	    System.out.println("Total Transactions: " + stats.getTransactionCount());
@@ -229,6 +359,23 @@ public class Operations {
 	    System.out.println("Average Transaction Amount: " + stats.getAverageAmount());
 	    System.out.println("Maximum Transaction Amount: " + stats.getMaxAmount());
 	    System.out.println("Minimum Transaction Amount: " + stats.getMinAmount());
+	    System.out.println("Standard Deviation: " + stats.getStandardDeviation());
+	    System.out.println("Median (p50) Amount: " + stats.getPercentile(50));
+	    System.out.println("95th Percentile Amount: " + stats.getPercentile(95));
+	    System.out.println("99th Percentile Amount: " + stats.getPercentile(99));
+	}
+
+	static void displayRollingStatistics(RollingStatistics rollingStatistics) {
+	    for (RollingStatistics.WindowSummary window : rollingStatistics.getAllWindows(System.currentTimeMillis())) {
+	        System.out.println("\n--- " + window.getName() + " ---");
+	        System.out.println("Transactions: " + window.getCount());
+	        System.out.println("Volume: " + window.getVolume());
+	        System.out.println("Minimum Amount: " + window.getMinAmount());
+	        System.out.println("Maximum Amount: " + window.getMaxAmount());
+	        for (TransactionType type : TransactionType.values()) {
+	            System.out.println(type + ": " + window.getCount(type) + " transactions, volume " + window.getVolume(type));
+	        }
+	    }
 	}
 
 
@@ -0,0 +1,120 @@
+package metrics;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public final class Metrics {
+    public static final String OBJECT_NAME = "ebanking:type=Metrics";
+
+    private static final ConcurrentHashMap<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService dumpScheduler;
+
+    private Metrics() {
+    }
+
+    public static LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public static void recordFailure(String operation, Throwable error) {
+        counter(operation + ".failures." + error.getClass().getSimpleName()).increment();
+    }
+
+    public static void recordIo(String operation, long startNanos, long bytes) {
+        timer(operation).recordSince(startNanos);
+        counter(operation + ".bytes").add(bytes);
+    }
+
+    static Map<String, LatencyHistogram> getTimers() {
+        return new TreeMap<>(timers);
+    }
+
+    static Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    public static void reset() {
+        timers.values().forEach(LatencyHistogram::reset);
+        counters.values().forEach(LongAdder::reset);
+    }
+
+    public static String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("--- Metrics ").append(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").format(new Date())).append(" ---\n");
+        builder.append(String.format("%-50s %10s %10s %10s %10s %10s %10s%n", "timer", "count", "mean us", "p50 us", "p99 us", "p99.9 us", "max us"));
+        for (Map.Entry<String, LatencyHistogram> entry : getTimers().entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            builder.append(String.format("%-50s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", entry.getKey(), histogram.getCount(),
+                    histogram.getMeanNanos() / 1000, histogram.getPercentileNanos(50) / 1000.0, histogram.getPercentileNanos(99) / 1000.0,
+                    histogram.getPercentileNanos(99.9) / 1000.0, histogram.getMaxNanos() / 1000.0));
+        }
+        for (Map.Entry<String, Long> entry : getCounters().entrySet()) {
+            if (entry.getValue() != 0) {
+                builder.append(String.format("%-50s %10d%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        return builder.toString();
+    }
+
+    public static void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsMBean(), name);
+            }
+        } catch (JMException e) {
+            System.out.println("Warning: could not register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    public static synchronized void startPeriodicDump(String filename, long intervalSeconds) {
+        if (dumpScheduler != null || intervalSeconds <= 0) {
+            return;
+        }
+        dumpScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpScheduler.scheduleAtFixedRate(() -> {
+            try (PrintWriter writer = new PrintWriter(new FileWriter(filename, true))) {
+                writer.print(dump());
+            } catch (IOException e) {
+                System.out.println("Warning: could not write metrics to " + filename + ": " + e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stopPeriodicDump() {
+        if (dumpScheduler != null) {
+            dumpScheduler.shutdownNow();
+            dumpScheduler = null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ReflectionException;
+
+class MetricsMBean implements DynamicMBean {
+    private static final String[] TIMER_FIELDS = {"count", "meanMicros", "p50Micros", "p99Micros", "p999Micros", "maxMicros"};
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        int separator = attribute.lastIndexOf(':');
+        if (separator > 0) {
+            LatencyHistogram histogram = Metrics.getTimers().get(attribute.substring(0, separator));
+            if (histogram != null) {
+                return timerValue(histogram, attribute.substring(separator + 1));
+            }
+        }
+        Long value = Metrics.getCounters().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException("Unknown metric " + attribute);
+        }
+        return value;
+    }
+
+    private static Object timerValue(LatencyHistogram histogram, String field) throws AttributeNotFoundException {
+        switch (field) {
+            case "count":
+                return histogram.getCount();
+            case "meanMicros":
+                return histogram.getMeanNanos() / 1000;
+            case "p50Micros":
+                return histogram.getPercentileNanos(50) / 1000.0;
+            case "p99Micros":
+                return histogram.getPercentileNanos(99) / 1000.0;
+            case "p999Micros":
+                return histogram.getPercentileNanos(99.9) / 1000.0;
+            case "maxMicros":
+                return histogram.getMaxNanos() / 1000.0;
+            default:
+                throw new AttributeNotFoundException("Unknown timer field " + field);
+        }
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                continue;
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only.");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if ("dump".equals(actionName)) {
+            return Metrics.dump();
+        }
+        if ("reset".equals(actionName)) {
+            Metrics.reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (String timer : Metrics.getTimers().keySet()) {
+            for (String field : TIMER_FIELDS) {
+                String type = "count".equals(field) ? Long.class.getName() : Double.class.getName();
+                attributes.add(new MBeanAttributeInfo(timer + ":" + field, type, timer + " " + field, true, false, false));
+            }
+        }
+        for (Map.Entry<String, Long> counter : Metrics.getCounters().entrySet()) {
+            attributes.add(new MBeanAttributeInfo(counter.getKey(), Long.class.getName(), counter.getKey(), true, false, false));
+        }
+        MBeanOperationInfo[] operations = {
+            new MBeanOperationInfo("dump", "Text dump of all metrics", new MBeanParameterInfo[0], String.class.getName(), MBeanOperationInfo.INFO),
+            new MBeanOperationInfo("reset", "Reset all metrics", new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION)
+        };
+        return new MBeanInfo(getClass().getName(), "E-Banking latency and failure metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, operations, null);
+    }
+}
@@ -0,0 +1,60 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class AccountDictionary {
+    public static final int NO_ACCOUNT = -1;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] accountNos = new String[256];
+    private volatile int size;
+
+    public int intern(String accountNo) {
+        if (accountNo == null) {
+            return NO_ACCOUNT;
+        }
+        Integer id = ids.get(accountNo);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(accountNo);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            String[] current = accountNos;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[next] = accountNo;
+            accountNos = current;
+            size = next + 1;
+            ids.put(accountNo, next);
+            return next;
+        }
+    }
+
+    public int find(String accountNo) {
+        if (accountNo == null) {
+            return NO_ACCOUNT;
+        }
+        Integer id = ids.get(accountNo);
+        return id == null ? NO_ACCOUNT : id;
+    }
+
+    public String getAccountNo(int id) {
+        if (id == NO_ACCOUNT) {
+            return null;
+        }
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Account id " + id + " is out of range for dictionary of size " + size);
+        }
+        return accountNos[id];
+    }
+
+    public int size() {
+        return size;
+    }
+}
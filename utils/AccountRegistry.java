@@ -0,0 +1,99 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import entities.Account;
+
+public class AccountRegistry implements Iterable<Account> {
+    private final List<Account> accounts;
+    private final ConcurrentHashMap<String, Account> accountIndex;
+    private volatile List<Account> accountsView;
+    private List<Account> sortedAccounts;
+
+    public AccountRegistry() {
+        this.accounts = new ArrayList<>();
+        this.accountIndex = new ConcurrentHashMap<>();
+    }
+
+    public AccountRegistry(Collection<Account> accounts) {
+        this.accounts = new ArrayList<>(accounts.size());
+        this.accountIndex = new ConcurrentHashMap<>(Math.max(16, accounts.size()));
+        for (Account account : accounts) {
+            add(account);
+        }
+    }
+
+    public synchronized boolean add(Account account) {
+        if (account == null || account.getAccountNo() == null) {
+            throw new IllegalArgumentException("Account and account number cannot be null.");
+        }
+        if (accountIndex.putIfAbsent(account.getAccountNo(), account) != null) {
+            return false;
+        }
+        accounts.add(account);
+        accountsView = null;
+        sortedAccounts = null;
+        return true;
+    }
+
+    public synchronized boolean remove(Account account) {
+        if (account == null || !accountIndex.remove(account.getAccountNo(), account)) {
+            return false;
+        }
+        accounts.remove(accounts.lastIndexOf(account));
+        accountsView = null;
+        sortedAccounts = null;
+        return true;
+    }
+
+    public Account findAccountByNumber(String accountNo) {
+        if (accountNo == null) {
+            return null;
+        }
+        return accountIndex.get(accountNo);
+    }
+
+    public boolean accountExists(String accountNo) {
+        return accountNo != null && accountIndex.containsKey(accountNo);
+    }
+
+    public int size() {
+        return accountIndex.size();
+    }
+
+    public boolean isEmpty() {
+        return accountIndex.isEmpty();
+    }
+
+    public List<Account> getAccounts() {
+        List<Account> view = accountsView;
+        if (view == null) {
+            synchronized (this) {
+                if (accountsView == null) {
+                    accountsView = Collections.unmodifiableList(new ArrayList<>(accounts));
+                }
+                view = accountsView;
+            }
+        }
+        return view;
+    }
+
+    public synchronized List<Account> getSortedAccounts() {
+        if (sortedAccounts == null) {
+            List<Account> sorted = new ArrayList<>(accounts);
+            Collections.sort(sorted);
+            sortedAccounts = Collections.unmodifiableList(sorted);
+        }
+        return sortedAccounts;
+    }
+
+    @Override
+    public Iterator<Account> iterator() {
+        return getAccounts().iterator();
+    }
+}
@@ -0,0 +1,293 @@
+package utils;
+
+import entities.Account;
+import entities.Transaction;
+import entities.TransactionId;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import metrics.Metrics;
+
+public class BinarySnapshot {
+    private static final int MAGIC = 0x45424E4B;
+    private static final int END_MAGIC = 0x454E4421;
+    private static final short VERSION = 4;
+    private static final short NO_OPENING_BALANCE_VERSION = 3;
+    private static final short STRING_ID_VERSION = 2;
+    private static final short UNSEQUENCED_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 2 + 4 + 4 + 8;
+    private static final int SEQUENCE_BYTES = 8;
+    private static final int ACCOUNT_RECORD_BYTES = 4 + 4 + 8 + 8;
+    private static final int NO_OPENING_BALANCE_ACCOUNT_RECORD_BYTES = 4 + 4 + 8;
+    private static final int TRANSACTION_RECORD_BYTES = 8 + 8 + 4 + 8 + 8 + 1 + 4 + 4;
+    private static final int STRING_ID_TRANSACTION_RECORD_BYTES = 4 + 8 + 8 + 1 + 4 + 4;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final long MAP_WINDOW_BYTES = 1L << 30;
+    private static final int NO_STRING = -1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final AccountRegistry accounts;
+    private final List<Transaction> transactions;
+    private final long checkpointSequence;
+
+    private BinarySnapshot(AccountRegistry accounts, List<Transaction> transactions, long checkpointSequence) {
+        this.accounts = accounts;
+        this.transactions = transactions;
+        this.checkpointSequence = checkpointSequence;
+    }
+
+    public AccountRegistry getAccounts() {
+        return accounts;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public long getCheckpointSequence() {
+        return checkpointSequence;
+    }
+
+    public static boolean exists(String filename) {
+        return Files.isRegularFile(Paths.get(filename));
+    }
+
+    public static void write(String filename, List<Account> accounts, List<Transaction> transactions) throws IOException {
+        write(filename, accounts, transactions, 0);
+    }
+
+    public static void write(String filename, List<Account> accounts, List<Transaction> transactions, long checkpointSequence) throws IOException {
+        long startNanos = System.nanoTime();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Account account : accounts) {
+            intern(account.getAccountNo(), stringIndex, strings);
+            intern(account.getOwner(), stringIndex, strings);
+        }
+        TransactionId[] transactionIds = new TransactionId[transactions.size()];
+        for (int i = 0; i < transactionIds.length; i++) {
+            Transaction transaction = transactions.get(i);
+            transactionIds[i] = transaction.getId();
+            if (transactionIds[i] != null) {
+                intern(transactionIds[i].getLegacyId(), stringIndex, strings);
+            }
+            intern(transaction.getSourceAccountNo(), stringIndex, strings);
+            intern(transaction.getDestinationAccountNo(), stringIndex, strings);
+        }
+
+        Path target = Paths.get(filename);
+        Path temporary = Paths.get(filename + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.putShort((short) 0);
+            buffer.putInt(strings.size());
+            buffer.putInt(accounts.size());
+            buffer.putLong(transactions.size());
+            buffer.putLong(checkpointSequence);
+
+            for (String value : strings) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                buffer = ensureCapacity(channel, buffer, 4 + bytes.length);
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+            for (Account account : accounts) {
+                buffer = ensureCapacity(channel, buffer, ACCOUNT_RECORD_BYTES);
+                buffer.putInt(stringIndex.get(account.getAccountNo()));
+                buffer.putInt(reference(account.getOwner(), stringIndex));
+                buffer.putDouble(account.getBalance());
+                buffer.putDouble(account.hasOpeningBalance() ? account.getOpeningBalance() : Double.NaN);
+            }
+            for (int i = 0; i < transactionIds.length; i++) {
+                Transaction transaction = transactions.get(i);
+                TransactionId transactionId = transactionIds[i];
+                buffer = ensureCapacity(channel, buffer, TRANSACTION_RECORD_BYTES);
+                buffer.putLong(transactionId == null ? 0 : transactionId.getHigh());
+                buffer.putLong(transactionId == null ? 0 : transactionId.getLow());
+                buffer.putInt(transactionId == null ? NO_STRING : reference(transactionId.getLegacyId(), stringIndex));
+                buffer.putDouble(transaction.getAmount());
+                buffer.putLong(transaction.getDate() == null ? NO_DATE : transaction.getDate().getTime());
+                buffer.put(transaction.getType() == null ? -1 : (byte) transaction.getType().ordinal());
+                buffer.putInt(reference(transaction.getSourceAccountNo(), stringIndex));
+                buffer.putInt(reference(transaction.getDestinationAccountNo(), stringIndex));
+            }
+            buffer = ensureCapacity(channel, buffer, 4);
+            buffer.putInt(END_MAGIC);
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Metrics.recordIo("io.save.snapshot", startNanos, Files.size(target));
+    }
+
+    public static BinarySnapshot load(String filename) throws IOException {
+        AccountRegistry accounts = new AccountRegistry();
+        List<Transaction> transactions = new ArrayList<>();
+        long checkpointSequence = load(filename, accounts::add, transactions::add);
+        return new BinarySnapshot(accounts, transactions, checkpointSequence);
+    }
+
+    public static long load(String filename, Consumer<Account> accountConsumer, Consumer<Transaction> transactionConsumer) throws IOException {
+        long startNanos = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            MappedReader reader = new MappedReader(channel);
+            reader.ensure(HEADER_BYTES);
+            if (reader.buffer.getInt() != MAGIC) {
+                throw new IOException(filename + " is not a binary snapshot.");
+            }
+            short version = reader.buffer.getShort();
+            if (version != VERSION && version != NO_OPENING_BALANCE_VERSION && version != STRING_ID_VERSION && version != UNSEQUENCED_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + filename);
+            }
+            reader.buffer.getShort();
+            int stringCount = reader.buffer.getInt();
+            int accountCount = reader.buffer.getInt();
+            long transactionCount = reader.buffer.getLong();
+            long checkpointSequence = 0;
+            if (version != UNSEQUENCED_VERSION) {
+                reader.ensure(SEQUENCE_BYTES);
+                checkpointSequence = reader.buffer.getLong();
+            }
+
+            String[] strings = new String[stringCount];
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < stringCount; i++) {
+                reader.ensure(4);
+                int length = reader.buffer.getInt();
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                reader.ensure(length);
+                reader.buffer.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+            boolean openingBalances = version == VERSION;
+            for (int i = 0; i < accountCount; i++) {
+                reader.ensure(openingBalances ? ACCOUNT_RECORD_BYTES : NO_OPENING_BALANCE_ACCOUNT_RECORD_BYTES);
+                String accountNo = strings[reader.buffer.getInt()];
+                String owner = lookup(strings, reader.buffer.getInt());
+                Account account = new Account(accountNo, owner, reader.buffer.getDouble());
+                account.setOpeningBalance(openingBalances ? openingBalance(reader.buffer.getDouble()) : null);
+                accountConsumer.accept(account);
+            }
+            boolean stringIds = version <= STRING_ID_VERSION;
+            for (long i = 0; i < transactionCount; i++) {
+                reader.ensure(stringIds ? STRING_ID_TRANSACTION_RECORD_BYTES : TRANSACTION_RECORD_BYTES);
+                Transaction transaction = new Transaction();
+                if (stringIds) {
+                    transaction.setTransactionId(lookup(strings, reader.buffer.getInt()));
+                } else {
+                    long high = reader.buffer.getLong();
+                    long low = reader.buffer.getLong();
+                    int legacyId = reader.buffer.getInt();
+                    if (legacyId != NO_STRING) {
+                        transaction.setTransactionId(strings[legacyId]);
+                    } else if (high != 0 || low != 0) {
+                        transaction.setId(TransactionId.of(high, low));
+                    }
+                }
+                transaction.setAmount(reader.buffer.getDouble());
+                long date = reader.buffer.getLong();
+                transaction.setDate(date == NO_DATE ? null : new Date(date));
+                byte type = reader.buffer.get();
+                transaction.setType(type < 0 || type >= TYPES.length ? null : TYPES[type]);
+                transaction.setSourceAccountNo(lookup(strings, reader.buffer.getInt()));
+                transaction.setDestinationAccountNo(lookup(strings, reader.buffer.getInt()));
+                transactionConsumer.accept(transaction);
+            }
+            reader.ensure(4);
+            if (reader.buffer.getInt() != END_MAGIC) {
+                throw new IOException("Binary snapshot " + filename + " is truncated.");
+            }
+            Metrics.recordIo("io.load.snapshot", startNanos, reader.fileSize);
+            return checkpointSequence;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Binary snapshot " + filename + " is corrupt.", e);
+        }
+    }
+
+    private static void intern(String value, Map<String, Integer> stringIndex, List<String> strings) {
+        if (value != null && !stringIndex.containsKey(value)) {
+            stringIndex.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+
+    private static int reference(String value, Map<String, Integer> stringIndex) {
+        return value == null ? NO_STRING : stringIndex.get(value);
+    }
+
+    private static String lookup(String[] strings, int reference) {
+        return reference == NO_STRING ? null : strings[reference];
+    }
+
+    private static Double openingBalance(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static ByteBuffer ensureCapacity(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        drain(channel, buffer);
+        if (buffer.capacity() < bytes) {
+            return ByteBuffer.allocateDirect(bytes);
+        }
+        return buffer;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static class MappedReader {
+        private final FileChannel channel;
+        private final long fileSize;
+        private long windowStart;
+        private MappedByteBuffer buffer;
+
+        MappedReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.fileSize = channel.size();
+            map(0);
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            long position = windowStart + buffer.position();
+            if (position + bytes > fileSize) {
+                throw new IOException("Unexpected end of binary snapshot.");
+            }
+            map(position);
+        }
+
+        private void map(long position) throws IOException {
+            windowStart = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_WINDOW_BYTES, fileSize - position));
+        }
+    }
+}
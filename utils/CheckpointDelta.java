@@ -0,0 +1,183 @@
+package utils;
+
+import entities.Account;
+import entities.Transaction;
+import entities.TransactionId;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import metrics.Metrics;
+
+public class CheckpointDelta {
+    private static final int MAGIC = 0x45424E44;
+    private static final int END_MAGIC = 0x454E4421;
+    private static final short VERSION = 4;
+    private static final short MATRIX_ROWS_VERSION = 3;
+    private static final short NO_OPENING_BALANCE_VERSION = 2;
+    private static final short STRING_ID_VERSION = 1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final long sequence;
+    private final List<Account> accounts;
+    private final List<Transaction> transactions;
+
+    public CheckpointDelta(long sequence, List<Account> accounts, List<Transaction> transactions) {
+        this.sequence = sequence;
+        this.accounts = accounts;
+        this.transactions = transactions;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public boolean isEmpty() {
+        return accounts.isEmpty() && transactions.isEmpty();
+    }
+
+    public void write(Path target) throws IOException {
+        long startNanos = System.nanoTime();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            output.writeInt(MAGIC);
+            output.writeShort(VERSION);
+            output.writeLong(sequence);
+            output.writeInt(accounts.size());
+            output.writeInt(transactions.size());
+            for (Account account : accounts) {
+                writeString(output, account.getAccountNo());
+                writeString(output, account.getOwner());
+                output.writeDouble(account.getBalance());
+                output.writeDouble(account.hasOpeningBalance() ? account.getOpeningBalance() : Double.NaN);
+            }
+            for (Transaction transaction : transactions) {
+                TransactionId transactionId = transaction.getId();
+                output.writeLong(transactionId == null ? 0 : transactionId.getHigh());
+                output.writeLong(transactionId == null ? 0 : transactionId.getLow());
+                writeString(output, transactionId == null ? null : transactionId.getLegacyId());
+                output.writeDouble(transaction.getAmount());
+                output.writeLong(transaction.getDate() == null ? NO_DATE : transaction.getDate().getTime());
+                output.writeByte(transaction.getType() == null ? -1 : transaction.getType().ordinal());
+                writeString(output, transaction.getSourceAccountNo());
+                writeString(output, transaction.getDestinationAccountNo());
+            }
+            output.writeInt(END_MAGIC);
+            output.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Metrics.recordIo("io.save.checkpointDelta", startNanos, Files.size(target));
+    }
+
+    public static CheckpointDelta read(Path source) throws IOException {
+        long startNanos = System.nanoTime();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(source), 1 << 16))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException(source + " is not a checkpoint delta.");
+            }
+            short version = input.readShort();
+            if (version < STRING_ID_VERSION || version > VERSION) {
+                throw new IOException("Unsupported checkpoint delta version " + version + " in " + source);
+            }
+            long sequence = input.readLong();
+            int accountCount = input.readInt();
+            int transactionCount = input.readInt();
+            int rowCount = version <= MATRIX_ROWS_VERSION ? input.readInt() : 0;
+
+            List<Account> accounts = new ArrayList<>(accountCount);
+            for (int i = 0; i < accountCount; i++) {
+                String accountNo = readString(input);
+                String owner = readString(input);
+                Account account = new Account(accountNo, owner, input.readDouble());
+                account.setOpeningBalance(version > NO_OPENING_BALANCE_VERSION ? openingBalance(input.readDouble()) : null);
+                accounts.add(account);
+            }
+            List<Transaction> transactions = new ArrayList<>(transactionCount);
+            for (int i = 0; i < transactionCount; i++) {
+                Transaction transaction = new Transaction();
+                if (version == STRING_ID_VERSION) {
+                    transaction.setTransactionId(readString(input));
+                } else {
+                    long high = input.readLong();
+                    long low = input.readLong();
+                    String legacyId = readString(input);
+                    if (legacyId != null) {
+                        transaction.setTransactionId(legacyId);
+                    } else if (high != 0 || low != 0) {
+                        transaction.setId(TransactionId.of(high, low));
+                    }
+                }
+                transaction.setAmount(input.readDouble());
+                long date = input.readLong();
+                transaction.setDate(date == NO_DATE ? null : new Date(date));
+                byte type = input.readByte();
+                transaction.setType(type < 0 || type >= TYPES.length ? null : TYPES[type]);
+                transaction.setSourceAccountNo(readString(input));
+                transaction.setDestinationAccountNo(readString(input));
+                transactions.add(transaction);
+            }
+            for (int i = 0; i < rowCount; i++) {
+                readString(input);
+                int entryCount = input.readInt();
+                for (int k = 0; k < entryCount; k++) {
+                    readString(input);
+                    input.readDouble();
+                }
+            }
+            if (input.readInt() != END_MAGIC) {
+                throw new IOException("Checkpoint delta " + source + " is truncated.");
+            }
+            Metrics.recordIo("io.load.checkpointDelta", startNanos, Files.size(source));
+            return new CheckpointDelta(sequence, accounts, transactions);
+        } catch (EOFException e) {
+            throw new IOException("Checkpoint delta " + source + " is truncated.", e);
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static Double openingBalance(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
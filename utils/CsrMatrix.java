@@ -0,0 +1,92 @@
+package utils;
+
+import java.util.Arrays;
+
+public class CsrMatrix {
+    private final int size;
+    private final int[] rowOffsets;
+    private final int[] columns;
+    private final double[] values;
+
+    public CsrMatrix(int size, int[] rowOffsets, int[] columns, double[] values) {
+        this.size = size;
+        this.rowOffsets = rowOffsets;
+        this.columns = columns;
+        this.values = values;
+    }
+
+    static CsrMatrix fromRows(SparseRow[] rows, int size) {
+        int[] rowOffsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            rowOffsets[i + 1] = rowOffsets[i] + (rows[i] == null ? 0 : rows[i].size());
+        }
+        int[] columns = new int[rowOffsets[size]];
+        double[] values = new double[rowOffsets[size]];
+        for (int i = 0; i < size; i++) {
+            if (rows[i] == null) {
+                continue;
+            }
+            int[] rowColumns = rows[i].sortedColumns();
+            int offset = rowOffsets[i];
+            for (int k = 0; k < rowColumns.length; k++) {
+                columns[offset + k] = rowColumns[k];
+                values[offset + k] = rows[i].get(rowColumns[k]);
+            }
+        }
+        return new CsrMatrix(size, rowOffsets, columns, values);
+    }
+
+    public CsrMatrix transpose() {
+        int nonZeroCount = getNonZeroCount();
+        int[] transposedOffsets = new int[size + 1];
+        for (int k = 0; k < nonZeroCount; k++) {
+            transposedOffsets[columns[k] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            transposedOffsets[i + 1] += transposedOffsets[i];
+        }
+        int[] next = Arrays.copyOf(transposedOffsets, size);
+        int[] transposedColumns = new int[nonZeroCount];
+        double[] transposedValues = new double[nonZeroCount];
+        for (int row = 0; row < size; row++) {
+            for (int k = rowOffsets[row]; k < rowOffsets[row + 1]; k++) {
+                int position = next[columns[k]]++;
+                transposedColumns[position] = row;
+                transposedValues[position] = values[k];
+            }
+        }
+        return new CsrMatrix(size, transposedOffsets, transposedColumns, transposedValues);
+    }
+
+    public double get(int row, int column) {
+        if (row < 0 || row >= size) {
+            return 0;
+        }
+        int position = Arrays.binarySearch(columns, rowOffsets[row], rowOffsets[row + 1], column);
+        return position >= 0 ? values[position] : 0;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getNonZeroCount() {
+        return rowOffsets[size];
+    }
+
+    public int getRowStart(int row) {
+        return rowOffsets[row];
+    }
+
+    public int getRowEnd(int row) {
+        return rowOffsets[row + 1];
+    }
+
+    public int getColumn(int position) {
+        return columns[position];
+    }
+
+    public double getValue(int position) {
+        return values[position];
+    }
+}
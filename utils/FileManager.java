@@ -6,46 +6,49 @@ import com.google.gson.reflect.TypeToken;
 import entities.Account;
 import entities.Transaction;
 import exceptions.InvalidAccountDataException;
-import exceptions.InvalidTransactionAmountsDataException;
-import exceptions.InvalidTransactionDataException;
-import exceptions.InvalidTransactionMatrixDataException;
+import metrics.Metrics;
 
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class FileManager {
 
-    private static final Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").setPrettyPrinting().create();
+    private static final Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").registerTypeAdapterFactory(new TransactionAdapterFactory()).create();
+    private static final long PROGRESS_INTERVAL = 100_000;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final JsonFormat DEFAULT_FORMAT = JsonFormat.fromName(System.getProperty("ebanking.json.format"));
 
-    public static List<Account> loadAccountsFromJSON(String filename) {
-        List<Account> accounts = new ArrayList<>();
-        try (Reader reader = new FileReader(filename)) {
+    public static AccountRegistry loadAccountsFromJSON(String filename) {
+        long startNanos = System.nanoTime();
+        AccountRegistry accounts = new AccountRegistry();
+        try (Reader reader = new InputStreamReader(openJsonInput(new BufferedInputStream(new FileInputStream(filename), BUFFER_BYTES)), StandardCharsets.UTF_8)) {
             Type listType = new TypeToken<ArrayList<Account>>() {}.getType();
             List<Account> rawAccounts = gson.fromJson(reader, listType);
 
             if (rawAccounts != null) {
-                Set<String> accountNumbers = new HashSet<>();
                 for (Account account : rawAccounts) {
                     try {
-                        validateAccount(account, accountNumbers);
+                        validateAccount(account, accounts);
                         accounts.add(account);
                     } catch (InvalidAccountDataException e) {
                         System.out.println("Warning: " + e.getMessage());
                     }
                 }
             }
+            Metrics.recordIo("io.load.accounts", startNanos, new File(filename).length());
             System.out.println("Accounts loaded from " + filename);
         } catch (FileNotFoundException e) {
             System.out.println("No existing account data found in " + filename + ". Starting fresh.");
@@ -55,7 +58,7 @@ public class FileManager {
         return accounts;
     }
   
-    private static void validateAccount(Account account, Set<String> accountNumbers) throws InvalidAccountDataException {
+    private static void validateAccount(Account account, AccountRegistry accounts) throws InvalidAccountDataException {
         if (account.getAccountNo() == null || account.getAccountNo().trim().isEmpty()) {
             throw new InvalidAccountDataException("Account number is missing or empty.");
         }
@@ -65,243 +68,197 @@ public class FileManager {
         if (account.getBalance() < 0) {
             throw new InvalidAccountDataException("Balance cannot be negative for account number " + account.getAccountNo());
         }
-        if (accountNumbers.contains(account.getAccountNo())) {
+        if (accounts.accountExists(account.getAccountNo())) {
             throw new InvalidAccountDataException("Duplicate account number found: " + account.getAccountNo());
         }
-        accountNumbers.add(account.getAccountNo());
     }
 
-    public static void saveAccountsToJSON(List<Account> accounts, String filename) {
-        try (Writer writer = new FileWriter(filename)) {
-            gson.toJson(accounts, writer);
-            System.out.println("Accounts saved to " + filename);
+    public static boolean saveAccountsToJSON(List<Account> accounts, String filename) {
+        return saveAccountsToJSON(accounts, filename, DEFAULT_FORMAT);
+    }
+
+    public static boolean saveAccountsToJSON(List<Account> accounts, String filename, JsonFormat format) {
+        long startNanos = System.nanoTime();
+        try (JsonWriter writer = newJsonWriter(filename, format)) {
+            writer.beginArray();
+            for (Account account : accounts) {
+                gson.toJson(account, Account.class, writer);
+            }
+            writer.endArray();
         } catch (IOException e) {
             e.printStackTrace();
+            return false;
         }
+        Metrics.recordIo("io.save.accounts", startNanos, new File(filename).length());
+        System.out.println("Accounts saved to " + filename);
+        return true;
     }
 
-    public static List<Transaction> loadTransactionsFromJSON(String filename, List<Account> accountList) {
+    public static List<Transaction> loadTransactionsFromJSON(String filename, AccountRegistry accounts) {
         List<Transaction> transactions = new ArrayList<>();
-        try (Reader reader = new FileReader(filename)) {
-            Type listType = new TypeToken<ArrayList<Transaction>>() {}.getType();
-            List<Transaction> rawTransactions = gson.fromJson(reader, listType);
+        loadTransactionsFromJSON(filename, accounts, transactions::add, consoleProgress(filename));
+        return transactions;
+    }
 
-            if (rawTransactions != null) {
-                Set<String> transactionIds = new HashSet<>();
-                for (Transaction transaction : rawTransactions) {
-                    try {
-                        validateTransaction(transaction, transactionIds, accountList);
-                        transactions.add(transaction);
-                    } catch (InvalidTransactionDataException e) {
-                        System.out.println("Warning: " + e.getMessage());
+    public static long loadTransactionsFromJSON(String filename, AccountRegistry accounts, Consumer<Transaction> consumer, LoadProgressListener progressListener) {
+        long startNanos = System.nanoTime();
+        File file = new File(filename);
+        long totalBytes = file.length();
+        long recordsRead = 0;
+        TransactionValidator validator = new TransactionValidator(accounts, consumer);
+        try (CountingInputStream input = new CountingInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_BYTES));
+                JsonReader reader = new JsonReader(new InputStreamReader(openJsonInput(input), StandardCharsets.UTF_8))) {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+            } else {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    validator.submit(gson.fromJson(reader, Transaction.class));
+                    recordsRead++;
+                    if (progressListener != null && recordsRead % PROGRESS_INTERVAL == 0) {
+                        progressListener.onProgress(recordsRead, validator.getAccepted(), input.getBytesRead(), totalBytes);
                     }
                 }
+                reader.endArray();
+            }
+            validator.finish();
+            if (progressListener != null) {
+                progressListener.onProgress(recordsRead, validator.getAccepted(), input.getBytesRead(), totalBytes);
             }
+            Metrics.recordIo("io.load.transactions", startNanos, input.getBytesRead());
             System.out.println("Transactions loaded from " + filename);
         } catch (FileNotFoundException e) {
             System.out.println("No existing transaction data found in " + filename + ". Starting fresh.");
+        } catch (EOFException e) {
+            validator.finish();
+            if (recordsRead == 0 && totalBytes == 0) {
+                System.out.println("Transaction data in " + filename + " is empty. Starting fresh.");
+            } else {
+                System.out.println("Warning: " + filename + " is truncated after " + recordsRead + " records: " + e.getMessage());
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            validator.finish();
+            if (e.getCause() instanceof EOFException) {
+                System.out.println("Warning: " + filename + " is truncated after " + recordsRead + " records: " + e.getCause().getMessage());
+            } else {
+                System.out.println("Warning: " + filename + " is malformed after " + recordsRead + " records: " + e.getMessage());
+            }
         } catch (IOException e) {
+            validator.finish();
             e.printStackTrace();
         }
-        return transactions;
+        return validator.getAccepted();
     }
-    
-    private static void validateTransaction(Transaction transaction, Set<String> transactionIds, List<Account> accountList) throws InvalidTransactionDataException {
-        if (transaction.getTransactionId() == null || transaction.getTransactionId().trim().isEmpty()) {
-            throw new InvalidTransactionDataException("Transaction ID is missing or empty.");
-        }
-        if (transactionIds.contains(transaction.getTransactionId())) {
-            throw new InvalidTransactionDataException("Duplicate transaction ID found: " + transaction.getTransactionId());
-        }
-        transactionIds.add(transaction.getTransactionId());
 
-        if (transaction.getAmount() <= 0) {
-            throw new InvalidTransactionDataException("Transaction amount must be positive for transaction ID " + transaction.getTransactionId());
-        }
-        if (transaction.getDate() == null) {
-            throw new InvalidTransactionDataException("Transaction date is missing for transaction ID " + transaction.getTransactionId());
-        }
-        if (transaction.getType() == null) {
-            throw new InvalidTransactionDataException("Transaction type is missing for transaction ID " + transaction.getTransactionId());
-        }
-        if (!isValidTransactionType(transaction.getType())) {
-            throw new InvalidTransactionDataException("Invalid transaction type '" + transaction.getType() + "' for transaction ID " + transaction.getTransactionId());
-        }
-        if (transaction.getSourceAccountNo() == null || transaction.getSourceAccountNo().trim().isEmpty()) {
-            throw new InvalidTransactionDataException("Source account number is missing for transaction ID " + transaction.getTransactionId());
-        }
-        if (!accountExists(transaction.getSourceAccountNo(), accountList)) {
-            throw new InvalidTransactionDataException("Source account " + transaction.getSourceAccountNo() + " does not exist for transaction ID " + transaction.getTransactionId());
-        }
-        if (transaction.getType() == TransactionType.TRANSFER) {
-            if (transaction.getDestinationAccountNo() == null || transaction.getDestinationAccountNo().trim().isEmpty()) {
-                throw new InvalidTransactionDataException("Destination account number is missing for transfer transaction ID " + transaction.getTransactionId());
+    public static LoadProgressListener consoleProgress(String filename) {
+        return (recordsRead, recordsAccepted, bytesRead, totalBytes) -> {
+            if (recordsRead >= PROGRESS_INTERVAL && totalBytes > 0) {
+                System.out.printf("Loading %s: %d records (%d%%)%n", filename, recordsRead, bytesRead * 100 / totalBytes);
             }
-            if (!accountExists(transaction.getDestinationAccountNo(), accountList)) {
-                throw new InvalidTransactionDataException("Destination account " + transaction.getDestinationAccountNo() + " does not exist for transaction ID " + transaction.getTransactionId());
-            }
-        }
-    }
-    
-    private static boolean isValidTransactionType(TransactionType type) {
-        return type == TransactionType.DEPOSIT || type == TransactionType.WITHDRAWAL || type == TransactionType.TRANSFER;
+        };
     }
-    
-    private static boolean accountExists(String accountNo, List<Account> accountList) {
-        for (Account account : accountList) {
-            if (account.getAccountNo().equals(accountNo)) {
-                return true;
-            }
-        }
-        return false;
+
+    public static boolean saveTransactionsToJSON(List<Transaction> transactions, String filename) {
+        return saveTransactionsToJSON(transactions, filename, DEFAULT_FORMAT);
     }
 
-    public static void saveTransactionsToJSON(List<Transaction> transactions, String filename) {
-        try (Writer writer = new FileWriter(filename)) {
-            gson.toJson(transactions, writer);
-            System.out.println("Transactions saved to " + filename);
+    public static boolean saveTransactionsToJSON(List<Transaction> transactions, String filename, JsonFormat format) {
+        long startNanos = System.nanoTime();
+        try (JsonWriter writer = newJsonWriter(filename, format)) {
+            writer.beginArray();
+            for (Transaction transaction : transactions) {
+                gson.toJson(transaction, Transaction.class, writer);
+            }
+            writer.endArray();
         } catch (IOException e) {
             e.printStackTrace();
+            return false;
         }
+        Metrics.recordIo("io.save.transactions", startNanos, new File(filename).length());
+        System.out.println("Transactions saved to " + filename);
+        return true;
     }
-    
-    public static void saveTransactionAmounts(double[] transactionAmounts, int transactionCount, String filename) {
-        try (Writer writer = new FileWriter(filename)) {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            double[] amountsToSave = Arrays.copyOf(transactionAmounts, transactionCount);
-            gson.toJson(amountsToSave, writer);
-            System.out.println("Transaction amounts saved to " + filename);
+
+    private static JsonWriter newJsonWriter(String filename, JsonFormat format) throws IOException {
+        OutputStream output = new FileOutputStream(filename);
+        try {
+            output = format == JsonFormat.GZIP ? new FastGzipOutputStream(output) : new BufferedOutputStream(output, BUFFER_BYTES);
         } catch (IOException e) {
-            e.printStackTrace();
+            output.close();
+            throw e;
         }
-    }
-    
-	public static TransactionStatistics loadTransactionAmounts(String filename) {
-        TransactionStatistics stats = new TransactionStatistics(1000);
-        try (Reader reader = new FileReader(filename)) {
-            JsonArray jsonAmounts = new JsonParser().parse(reader).getAsJsonArray();
-            double[] amounts = validateAndParseTransactionAmounts(jsonAmounts);
-            stats.setTransactionAmounts(amounts);
-            stats.setTransactionCount(amounts.length);
-        } catch (InvalidTransactionAmountsDataException e) {
-            System.out.println("Warning: " + e.getMessage());
-        } catch (FileNotFoundException e) {
-            System.out.println("No existing transaction amounts data found in " + filename + ". Starting fresh.");
-        } catch (IOException e) {
-            e.printStackTrace();
+        JsonWriter writer = gson.newJsonWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_BYTES));
+        if (format == JsonFormat.PRETTY) {
+            writer.setIndent("  ");
         }
-        return stats;
+        return writer;
     }
 
-    private static double[] validateAndParseTransactionAmounts(JsonArray jsonAmounts) throws InvalidTransactionAmountsDataException {
-        List<Double> validAmounts = new ArrayList<>();
-
-        for (int i = 0; i < jsonAmounts.size(); i++) {
-            JsonElement element = jsonAmounts.get(i);
-            try {
-                double amount = element.getAsDouble();
-                if (amount <= 0) {
-                    System.out.println("Warning: Transaction amount at index " + i + " is non-positive and will be skipped.");
-                    continue;
-                }
-                validAmounts.add(amount);
-            } catch (ClassCastException | NumberFormatException | JsonParseException e) {
-                System.out.println("Warning: Transaction amount at index " + i + " is not a valid double and will be skipped.");
-            }
-        }
-
-        double[] amountsArray = validAmounts.stream().mapToDouble(Double::doubleValue).toArray();
-        return amountsArray;
-    }
-    
-    public static void saveTransactionMatrix(TransactionMatrix transactionMatrix, String filename) {
-        try (Writer writer = new FileWriter(filename)) {
-            TransactionMatrixData data = new TransactionMatrixData();
-            data.setAccountIndexMap(transactionMatrix.getAccountIndexMap());
-            data.setTransactionMatrix(transactionMatrix.getTransactionMatrix());
-            gson.toJson(data, writer);
-            System.out.println("Transaction matrix saved to " + filename);
-        } catch (IOException e) {
-            e.printStackTrace();
+    private static InputStream openJsonInput(InputStream input) throws IOException {
+        input.mark(2);
+        int first = input.read();
+        int second = input.read();
+        input.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >>> 8)) {
+            return new GZIPInputStream(input, BUFFER_BYTES);
         }
+        return input;
     }
 
-    public static TransactionMatrix loadTransactionMatrix(List<Account> accounts, String filename) {
-        TransactionMatrix transactionMatrix = new TransactionMatrix(accounts);
-        try (Reader reader = new FileReader(filename)) {
-            TransactionMatrixData data = gson.fromJson(reader, TransactionMatrixData.class);
-            if (data != null) {
-                validateTransactionMatrixData(data, accounts);
-                transactionMatrix.setAccountIndexMap(data.getAccountIndexMap());
-                transactionMatrix.setTransactionMatrix(data.getTransactionMatrix());
-                transactionMatrix.rebuildAccountsList(accounts);
-            }
-            System.out.println("Transaction matrix loaded from " + filename);
-        } catch (InvalidTransactionMatrixDataException e) {
-            System.out.println("Warning: " + e.getMessage());
-            transactionMatrix = new TransactionMatrix(accounts);
-        } catch (FileNotFoundException e) {
-            System.out.println("No existing transaction matrix data found in " + filename + ". Starting fresh.");
-        } catch (IOException e) {
-            e.printStackTrace();
+    private static class FastGzipOutputStream extends GZIPOutputStream {
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, BUFFER_BYTES);
+            def.setLevel(Deflater.BEST_SPEED);
         }
-        return transactionMatrix;
     }
 
-    private static void validateTransactionMatrixData(TransactionMatrixData data, List<Account> accounts) throws InvalidTransactionMatrixDataException {
-        Map<String, Integer> accountIndexMap = data.getAccountIndexMap();
-        double[][] matrix = data.getTransactionMatrix();
-        int accountCount = accounts.size();
+    private static class CountingInputStream extends FilterInputStream {
+        private long bytesRead;
+        private long markedBytesRead;
 
-        if (accountIndexMap == null || matrix == null) {
-            throw new InvalidTransactionMatrixDataException("Transaction matrix data is missing.");
+        CountingInputStream(InputStream in) {
+            super(in);
         }
 
-        if (accountIndexMap.size() != accountCount || matrix.length != accountCount) {
-            throw new InvalidTransactionMatrixDataException("Transaction matrix dimensions do not match the number of accounts.");
+        @Override
+        public synchronized void mark(int readLimit) {
+            super.mark(readLimit);
+            markedBytesRead = bytesRead;
         }
 
-        for (String accountNo : accountIndexMap.keySet()) {
-            if (!accountExists(accountNo, accounts)) {
-                throw new InvalidTransactionMatrixDataException("Account " + accountNo + " in transaction matrix does not exist in account list.");
-            }
+        @Override
+        public synchronized void reset() throws IOException {
+            super.reset();
+            bytesRead = markedBytesRead;
         }
 
-        for (int i = 0; i < matrix.length; i++) {
-            if (matrix[i].length != accountCount) {
-                throw new InvalidTransactionMatrixDataException("Transaction matrix row " + i + " has incorrect length.");
-            }
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (matrix[i][j] < 0) {
-                    throw new InvalidTransactionMatrixDataException("Transaction matrix contains negative value at [" + i + "][" + j + "].");
-                }
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                bytesRead++;
             }
-        }
-    }
-
-
-    private static class TransactionMatrixData {
-        private Map<String, Integer> accountIndexMap;
-        private double[][] transactionMatrix;
-
-        public Map<String, Integer> getAccountIndexMap() {
-            return accountIndexMap;
+            return value;
         }
 
-        public void setAccountIndexMap(Map<String, Integer> accountIndexMap) {
-            this.accountIndexMap = accountIndexMap;
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                bytesRead += count;
+            }
+            return count;
         }
 
-        public double[][] getTransactionMatrix() {
-            return transactionMatrix;
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            bytesRead += skipped;
+            return skipped;
         }
 
-        public void setTransactionMatrix(double[][] transactionMatrix) {
-            this.transactionMatrix = transactionMatrix;
+        long getBytesRead() {
+            return bytesRead;
         }
     }
-
-
-
-
 }
@@ -0,0 +1,84 @@
+package utils;
+
+import java.util.Arrays;
+
+public class InterestTiers {
+    private static final double CENT_EPSILON = 1e-6;
+
+    private final double[] thresholds;
+    private final double[] rates;
+
+    public InterestTiers(double[] thresholds, double[] rates) {
+        if (thresholds.length == 0 || thresholds.length != rates.length) {
+            throw new IllegalArgumentException("Interest tiers need one rate per threshold.");
+        }
+        for (int tier = 0; tier < thresholds.length; tier++) {
+            if (thresholds[tier] < 0 || rates[tier] < 0) {
+                throw new IllegalArgumentException("Interest thresholds and rates cannot be negative.");
+            }
+            if (tier > 0 && thresholds[tier] <= thresholds[tier - 1]) {
+                throw new IllegalArgumentException("Interest thresholds must be in increasing order.");
+            }
+        }
+        this.thresholds = thresholds.clone();
+        this.rates = rates.clone();
+    }
+
+    public static InterestTiers parse(String tiers) {
+        String[] parts = tiers.split(",");
+        double[] thresholds = new double[parts.length];
+        double[] rates = new double[parts.length];
+        for (int tier = 0; tier < parts.length; tier++) {
+            String[] values = parts[tier].trim().split(":");
+            if (values.length != 2) {
+                throw new IllegalArgumentException("Interest tiers must look like threshold:rate,threshold:rate, e.g. 0:0.001,10000:0.002");
+            }
+            try {
+                thresholds[tier] = Double.parseDouble(values[0].trim());
+                rates[tier] = Double.parseDouble(values[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid interest tier '" + parts[tier].trim() + "': " + e.getMessage());
+            }
+        }
+        return new InterestTiers(thresholds, rates);
+    }
+
+    public double interestOn(double balance) {
+        double interest = 0;
+        for (int tier = 0; tier < thresholds.length; tier++) {
+            interest += Math.max(0, Math.min(balance, upperBound(tier)) - thresholds[tier]) * rates[tier];
+        }
+        return Math.floor(interest * 100 + CENT_EPSILON) / 100;
+    }
+
+    public void computeInterest(double[] balances, double[] interest, int from, int to) {
+        Arrays.fill(interest, from, to, 0);
+        for (int tier = 0; tier < thresholds.length; tier++) {
+            double lower = thresholds[tier];
+            double upper = upperBound(tier);
+            double rate = rates[tier];
+            for (int i = from; i < to; i++) {
+                interest[i] += Math.max(0, Math.min(balances[i], upper) - lower) * rate;
+            }
+        }
+        for (int i = from; i < to; i++) {
+            interest[i] = Math.floor(interest[i] * 100 + CENT_EPSILON) / 100;
+        }
+    }
+
+    private double upperBound(int tier) {
+        return tier + 1 < thresholds.length ? thresholds[tier + 1] : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int tier = 0; tier < thresholds.length; tier++) {
+            if (tier > 0) {
+                builder.append(", ");
+            }
+            builder.append(String.format("%.2f", rates[tier] * 100)).append("% from ").append(String.format("%.2f", thresholds[tier]));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package utils;
+
+public enum JsonFormat {
+    PRETTY,
+    COMPACT,
+    GZIP;
+
+    public static JsonFormat fromName(String name) {
+        if (name == null || name.equalsIgnoreCase("compact")) {
+            return COMPACT;
+        }
+        for (JsonFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        System.out.println("Warning: Unknown JSON format '" + name + "', writing compact JSON.");
+        return COMPACT;
+    }
+}
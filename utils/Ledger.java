@@ -0,0 +1,183 @@
+package utils;
+
+import java.util.Date;
+import java.util.List;
+
+import entities.Account;
+import entities.Transaction;
+import exceptions.AccountNotFoundException;
+import exceptions.InsufficientFundsException;
+import exceptions.InvalidAccountDataException;
+import exceptions.InvalidAmountException;
+import exceptions.InvalidTransactionException;
+
+public class Ledger {
+    public interface CommitListener {
+        void onAccount(Account account);
+
+        void onTransaction(Transaction transaction);
+    }
+
+    private final AccountRegistry accounts;
+    private final TransactionLog transactions;
+    private volatile TransactionIdGenerator idGenerator;
+    private volatile CommitListener commitListener;
+
+    public Ledger(AccountRegistry accounts, TransactionLog transactions) {
+        this(accounts, transactions, new TimeOrderedIdGenerator());
+    }
+
+    public Ledger(AccountRegistry accounts, TransactionLog transactions, TransactionIdGenerator idGenerator) {
+        this.accounts = accounts;
+        this.transactions = transactions;
+        this.idGenerator = idGenerator;
+    }
+
+    public void setIdGenerator(TransactionIdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    public void setCommitListener(CommitListener commitListener) {
+        this.commitListener = commitListener;
+    }
+
+    public AccountRegistry getAccounts() {
+        return accounts;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public TransactionLog getTransactionLog() {
+        return transactions;
+    }
+
+    public Account createAccount(String accountNo, String owner, double balance) throws InvalidAccountDataException {
+        Account account = new Account(accountNo, owner, balance);
+        synchronized (account) {
+            if (!accounts.add(account)) {
+                throw new InvalidAccountDataException("An account with this number already exists.");
+            }
+            CommitListener listener = commitListener;
+            if (listener != null) {
+                try {
+                    listener.onAccount(account);
+                } catch (RuntimeException e) {
+                    accounts.remove(account);
+                    throw e;
+                }
+            }
+        }
+        return account;
+    }
+
+    public Transaction deposit(String accountNo, double amount) throws AccountNotFoundException, InvalidAmountException {
+        Account account = getAccount(accountNo);
+        synchronized (account) {
+            double previousBalance = account.getBalance();
+            account.deposit(amount);
+            return record(new Transaction(idGenerator.nextId(), amount, new Date(), TransactionType.DEPOSIT, accountNo), account, previousBalance);
+        }
+    }
+
+    public Transaction withdraw(String accountNo, double amount) throws AccountNotFoundException, InvalidAmountException, InsufficientFundsException {
+        Account account = getAccount(accountNo);
+        synchronized (account) {
+            double previousBalance = account.getBalance();
+            account.withdraw(amount);
+            return record(new Transaction(idGenerator.nextId(), amount, new Date(), TransactionType.WITHDRAWAL, accountNo), account, previousBalance);
+        }
+    }
+
+    public Transaction transfer(String sourceAccountNo, String destinationAccountNo, double amount)
+            throws AccountNotFoundException, InvalidTransactionException, InvalidAmountException, InsufficientFundsException {
+        Account sourceAccount = getAccount(sourceAccountNo);
+        Account destinationAccount = getAccount(destinationAccountNo);
+        if (sourceAccount == destinationAccount) {
+            throw new InvalidTransactionException("Source and destination accounts must be different.");
+        }
+        Account first = sourceAccount.compareTo(destinationAccount) <= 0 ? sourceAccount : destinationAccount;
+        Account second = first == sourceAccount ? destinationAccount : sourceAccount;
+        synchronized (first) {
+            synchronized (second) {
+                double sourceBalance = sourceAccount.getBalance();
+                double destinationBalance = destinationAccount.getBalance();
+                sourceAccount.transferTo(destinationAccount, amount);
+                return record(new Transaction(idGenerator.nextId(), amount, new Date(), TransactionType.TRANSFER, sourceAccountNo, destinationAccountNo),
+                        sourceAccount, sourceBalance, destinationAccount, destinationBalance);
+            }
+        }
+    }
+
+    public Transaction creditInterest(Account account, double expectedBalance, double interest) {
+        synchronized (account) {
+            if (!account.creditInterest(expectedBalance, interest)) {
+                return null;
+            }
+            return record(new Transaction(idGenerator.nextId(), interest, new Date(), TransactionType.INTEREST, account.getAccountNo()), account, expectedBalance);
+        }
+    }
+
+    public void replay(Transaction transaction)
+            throws AccountNotFoundException, InvalidTransactionException, InvalidAmountException, InsufficientFundsException {
+        if (transaction.getType() == null) {
+            throw new InvalidTransactionException("Transaction type is missing for transaction ID " + transaction.getTransactionId());
+        }
+        Account sourceAccount = getAccount(transaction.getSourceAccountNo());
+        switch (transaction.getType()) {
+            case DEPOSIT:
+                sourceAccount.deposit(transaction.getAmount());
+                break;
+            case WITHDRAWAL:
+                sourceAccount.withdraw(transaction.getAmount());
+                break;
+            case TRANSFER:
+                sourceAccount.transferTo(getAccount(transaction.getDestinationAccountNo()), transaction.getAmount());
+                break;
+            case INTEREST:
+                sourceAccount.deposit(transaction.getAmount());
+                break;
+            default:
+                throw new InvalidTransactionException("Invalid transaction type '" + transaction.getType() + "' for transaction ID " + transaction.getTransactionId());
+        }
+        commit(transaction);
+    }
+
+    public void restore(Transaction transaction) {
+        commit(transaction);
+    }
+
+    private Account getAccount(String accountNo) throws AccountNotFoundException {
+        Account account = accounts.findAccountByNumber(accountNo);
+        if (account == null) {
+            throw new AccountNotFoundException("Account " + accountNo + " not found.");
+        }
+        return account;
+    }
+
+    private Transaction record(Transaction transaction, Account account, double previousBalance) {
+        return record(transaction, account, previousBalance, null, 0);
+    }
+
+    private Transaction record(Transaction transaction, Account account, double previousBalance, Account otherAccount, double otherPreviousBalance) {
+        CommitListener listener = commitListener;
+        if (listener != null) {
+            try {
+                listener.onTransaction(transaction);
+            } catch (RuntimeException e) {
+                account.setBalance(previousBalance);
+                if (otherAccount != null) {
+                    otherAccount.setBalance(otherPreviousBalance);
+                }
+                throw e;
+            }
+        }
+        return commit(transaction);
+    }
+
+    private Transaction commit(Transaction transaction) {
+        transactions.add(transaction);
+        return transaction;
+    }
+}
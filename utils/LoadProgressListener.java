@@ -0,0 +1,5 @@
+package utils;
+
+public interface LoadProgressListener {
+    void onProgress(long recordsRead, long recordsAccepted, long bytesRead, long totalBytes);
+}
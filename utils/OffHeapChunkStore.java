@@ -0,0 +1,64 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class OffHeapChunkStore {
+    private static final int CHUNKS_PER_REGION = 64;
+
+    private final int chunkBytes;
+    private final FileChannel channel;
+    private ByteBuffer[] regions = new ByteBuffer[16];
+    private long allocatedBytes;
+
+    private OffHeapChunkStore(int chunkBytes, FileChannel channel) {
+        this.chunkBytes = chunkBytes;
+        this.channel = channel;
+    }
+
+    public static OffHeapChunkStore direct(int chunkBytes) {
+        return new OffHeapChunkStore(chunkBytes, null);
+    }
+
+    public static OffHeapChunkStore mapped(int chunkBytes, Path file) throws IOException {
+        return new OffHeapChunkStore(chunkBytes, FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DELETE_ON_CLOSE));
+    }
+
+    public boolean isMapped() {
+        return channel != null;
+    }
+
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public synchronized ByteBuffer chunk(int chunkIndex) {
+        int regionIndex = chunkIndex / CHUNKS_PER_REGION;
+        if (regionIndex >= regions.length) {
+            regions = Arrays.copyOf(regions, Math.max(regions.length * 2, regionIndex + 1));
+        }
+        if (regions[regionIndex] == null) {
+            regions[regionIndex] = allocateRegion(regionIndex);
+            allocatedBytes += (long) chunkBytes * CHUNKS_PER_REGION;
+        }
+        return regions[regionIndex].slice((chunkIndex % CHUNKS_PER_REGION) * chunkBytes, chunkBytes).order(ByteOrder.nativeOrder());
+    }
+
+    private ByteBuffer allocateRegion(int regionIndex) {
+        int regionBytes = chunkBytes * CHUNKS_PER_REGION;
+        if (channel == null) {
+            return ByteBuffer.allocateDirect(regionBytes);
+        }
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, (long) regionIndex * regionBytes, regionBytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not map off-heap transaction region " + regionIndex + ": " + e.getMessage(), e);
+        }
+    }
+}
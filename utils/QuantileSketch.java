@@ -0,0 +1,182 @@
+package utils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class QuantileSketch {
+    private static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    private static final int DEFAULT_MAX_BUCKETS = 2048;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int maxBuckets;
+    private long[] counts;
+    private int minIndex;
+    private int maxIndex;
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BUCKETS);
+    }
+
+    public QuantileSketch(double relativeAccuracy, int maxBuckets) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1.");
+        }
+        if (maxBuckets <= 0) {
+            throw new IllegalArgumentException("Maximum bucket count must be positive.");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.maxBuckets = maxBuckets;
+        this.counts = new long[0];
+    }
+
+    public void add(double value) {
+        count++;
+        if (value <= 0 || Double.isNaN(value)) {
+            zeroCount++;
+            return;
+        }
+        addToBucket((int) Math.ceil(Math.log(value) / logGamma), 1);
+    }
+
+    private void addToBucket(int index, long occurrences) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            minIndex = index;
+            maxIndex = index;
+        } else if (index < minIndex) {
+            index = Math.max(index, maxIndex - maxBuckets + 1);
+            if (index < minIndex) {
+                extendRange(index, maxIndex);
+            }
+        } else if (index > maxIndex) {
+            if (index - minIndex >= maxBuckets) {
+                collapseBelow(index - maxBuckets + 1);
+            }
+            extendRange(minIndex, index);
+        }
+        counts[index - minIndex] += occurrences;
+    }
+
+    private void extendRange(int newMinIndex, int newMaxIndex) {
+        int length = newMaxIndex - newMinIndex + 1;
+        if (newMinIndex != minIndex || length > counts.length) {
+            long[] newCounts = new long[Math.max(length, Math.min(maxBuckets, counts.length * 2))];
+            System.arraycopy(counts, 0, newCounts, minIndex - newMinIndex, maxIndex - minIndex + 1);
+            counts = newCounts;
+        }
+        minIndex = newMinIndex;
+        maxIndex = newMaxIndex;
+    }
+
+    private void collapseBelow(int newMinIndex) {
+        long collapsed = 0;
+        int end = Math.min(maxIndex, newMinIndex - 1);
+        for (int index = minIndex; index <= end; index++) {
+            collapsed += counts[index - minIndex];
+        }
+        long[] newCounts = new long[counts.length];
+        if (maxIndex >= newMinIndex) {
+            System.arraycopy(counts, newMinIndex - minIndex, newCounts, 0, maxIndex - newMinIndex + 1);
+        } else {
+            maxIndex = newMinIndex;
+        }
+        counts = newCounts;
+        minIndex = newMinIndex;
+        counts[0] += collapsed;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.gamma != gamma) {
+            throw new IllegalArgumentException("Cannot merge sketches with different relative accuracy.");
+        }
+        count += other.zeroCount;
+        zeroCount += other.zeroCount;
+        for (int index = other.minIndex; other.counts.length > 0 && index <= other.maxIndex; index++) {
+            long occurrences = other.counts[index - other.minIndex];
+            if (occurrences > 0) {
+                count += occurrences;
+                addToBucket(index, occurrences);
+            }
+        }
+    }
+
+    void writeState(DataOutputStream output) throws IOException {
+        output.writeDouble(relativeAccuracy);
+        output.writeInt(maxBuckets);
+        output.writeLong(zeroCount);
+        output.writeLong(count);
+        int bucketCount = counts.length == 0 ? 0 : maxIndex - minIndex + 1;
+        output.writeInt(bucketCount);
+        output.writeInt(minIndex);
+        for (int k = 0; k < bucketCount; k++) {
+            output.writeLong(counts[k]);
+        }
+    }
+
+    static QuantileSketch readState(DataInputStream input) throws IOException {
+        QuantileSketch sketch = new QuantileSketch(input.readDouble(), input.readInt());
+        sketch.zeroCount = input.readLong();
+        sketch.count = input.readLong();
+        int bucketCount = input.readInt();
+        int firstIndex = input.readInt();
+        if (bucketCount < 0 || bucketCount > sketch.maxBuckets) {
+            throw new IOException("Quantile sketch has " + bucketCount + " buckets.");
+        }
+        if (bucketCount > 0) {
+            sketch.counts = new long[bucketCount];
+            sketch.minIndex = firstIndex;
+            sketch.maxIndex = firstIndex + bucketCount - 1;
+            for (int k = 0; k < bucketCount; k++) {
+                sketch.counts[k] = input.readLong();
+            }
+        }
+        return sketch;
+    }
+
+    public double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        if (rank <= zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int index = minIndex; index <= maxIndex; index++) {
+            seen += counts[index - minIndex];
+            if (seen >= rank) {
+                return 2 * Math.pow(gamma, index) / (gamma + 1);
+            }
+        }
+        return 2 * Math.pow(gamma, maxIndex) / (gamma + 1);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public void clear() {
+        counts = new long[0];
+        zeroCount = 0;
+        count = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch [count=" + count + ", buckets=" + (counts.length == 0 ? 0 : maxIndex - minIndex + 1) + "]";
+    }
+}
@@ -0,0 +1,13 @@
+package utils;
+
+import java.util.UUID;
+
+import entities.TransactionId;
+
+public class RandomUuidGenerator implements TransactionIdGenerator {
+    @Override
+    public TransactionId nextId() {
+        UUID uuid = UUID.randomUUID();
+        return TransactionId.of(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+}
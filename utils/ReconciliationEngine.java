@@ -0,0 +1,398 @@
+package utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import entities.Account;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
+public class ReconciliationEngine {
+    private static final LatencyHistogram RECONCILE_TIMER = Metrics.timer("reconciliation.run");
+    private static final int MIN_SLICE_SIZE = 1 << 16;
+    private static final int SLICES_PER_THREAD = 4;
+    private static final long DEFAULT_PASS_BYTES = 64L << 20;
+    private static final int BYTES_PER_ACCOUNT = 8 + 4 + 8;
+    private static final int MIN_ACCOUNTS_PER_PASS = 1 << 10;
+    private static final double CENT_TOLERANCE = 0.005;
+    private static final double RELATIVE_TOLERANCE = 1e-9;
+    private static final int SAMPLE_SIZE = 20;
+
+    private final TransactionLog transactions;
+    private final ForkJoinPool pool;
+    private final long passBytes;
+
+    public ReconciliationEngine(TransactionLog transactions) {
+        this(transactions, ForkJoinPool.commonPool(), DEFAULT_PASS_BYTES);
+    }
+
+    public ReconciliationEngine(TransactionLog transactions, ForkJoinPool pool, long passBytes) {
+        if (passBytes <= 0) {
+            throw new IllegalArgumentException("The memory budget per pass must be positive.");
+        }
+        this.transactions = transactions;
+        this.pool = pool;
+        this.passBytes = passBytes;
+    }
+
+    public static StoredState capture(TransactionLog transactions, AccountRegistry accounts, TransactionStatistics statistics, TransactionMatrix matrix) {
+        List<Account> accountList = accounts.getAccounts();
+        String[] accountNumbers = new String[accountList.size()];
+        double[] balances = new double[accountList.size()];
+        double[] openingBalances = new double[accountList.size()];
+        for (int i = 0; i < accountNumbers.length; i++) {
+            Account account = accountList.get(i);
+            accountNumbers[i] = account.getAccountNo();
+            balances[i] = account.getBalance();
+            openingBalances[i] = account.hasOpeningBalance() ? account.getOpeningBalance() : Double.NaN;
+        }
+        TransactionStatistics storedStatistics = new TransactionStatistics(1, false);
+        storedStatistics.merge(statistics);
+        CsrMatrix storedMatrix;
+        String[] matrixAccountNumbers;
+        synchronized (matrix) {
+            storedMatrix = matrix.getCsrMatrix();
+            matrixAccountNumbers = matrix.getAccountNumbersByIndex();
+        }
+        return new StoredState(transactions.size(), transactions.getAccountDictionary().size(), accountNumbers, balances, openingBalances,
+                storedStatistics, storedMatrix, matrixAccountNumbers);
+    }
+
+    public ReconciliationReport reconcile(StoredState stored, String mismatchFile) throws IOException {
+        long startNanos = System.nanoTime();
+        AccountDictionary dictionary = transactions.getAccountDictionary();
+        int accountIdCount = stored.accountIdCount;
+        int[] storedAccountIds = accountIds(dictionary, stored.accountNumbers, accountIdCount);
+        int[] matrixAccountIds = accountIds(dictionary, stored.matrixAccountNumbers, accountIdCount);
+        int[] storedAccountById = inverse(storedAccountIds, accountIdCount);
+        int[] matrixRowById = inverse(matrixAccountIds, accountIdCount);
+
+        int transactionCount = stored.transactionCount;
+        int sliceSize = Math.max(MIN_SLICE_SIZE, transactionCount / (pool.getParallelism() * SLICES_PER_THREAD) + 1);
+        long sliceCount = 2L * transactionCount / sliceSize + 1;
+        int accountsPerPass = (int) Math.max(MIN_ACCOUNTS_PER_PASS, Math.min(Math.max(1, accountIdCount), passBytes / (sliceCount * BYTES_PER_ACCOUNT)));
+
+        try (Writer writer = mismatchFile == null ? null : ReportWriter.open(new File(mismatchFile))) {
+            Collector collector = new Collector(stored, dictionary, matrixAccountIds, matrixRowById, writer);
+            int passCount = 0;
+            int firstAccountId = 0;
+            do {
+                int lastAccountId = Math.min(accountIdCount, firstAccountId + accountsPerPass);
+                Partial partial = pool.invoke(new SliceTask(0, transactionCount, sliceSize, firstAccountId, lastAccountId, passCount == 0));
+                if (passCount == 0) {
+                    collector.checkStatistics(partial.statistics);
+                }
+                collector.checkAccounts(partial, firstAccountId, storedAccountById, matrixRowById);
+                firstAccountId = lastAccountId;
+                passCount++;
+            } while (firstAccountId < accountIdCount);
+            for (int i = 0; i < storedAccountIds.length; i++) {
+                if (storedAccountIds[i] == AccountDictionary.NO_ACCOUNT) {
+                    collector.checkBalance(i, 0);
+                }
+            }
+            for (int row = 0; row < matrixAccountIds.length; row++) {
+                if (matrixAccountIds[row] == AccountDictionary.NO_ACCOUNT) {
+                    collector.checkMatrixRow(row, null);
+                }
+            }
+            RECONCILE_TIMER.recordSince(startNanos);
+            if (mismatchFile != null) {
+                writer.flush();
+                Metrics.recordIo("io.save.reconciliation", startNanos, new File(mismatchFile).length());
+            }
+            return new ReconciliationReport(transactionCount, stored.accountNumbers.length, passCount, collector.accountsWithoutOpeningBalance,
+                    collector.checkedMatrixCells, collector.mismatchCounts, collector.sample, System.nanoTime() - startNanos);
+        }
+    }
+
+    private static int[] accountIds(AccountDictionary dictionary, String[] accountNumbers, int accountIdCount) {
+        int[] ids = new int[accountNumbers.length];
+        for (int i = 0; i < accountNumbers.length; i++) {
+            int id = dictionary.find(accountNumbers[i]);
+            ids[i] = id < accountIdCount ? id : AccountDictionary.NO_ACCOUNT;
+        }
+        return ids;
+    }
+
+    private static int[] inverse(int[] ids, int accountIdCount) {
+        int[] indexes = new int[accountIdCount];
+        Arrays.fill(indexes, -1);
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != AccountDictionary.NO_ACCOUNT) {
+                indexes[ids[i]] = i;
+            }
+        }
+        return indexes;
+    }
+
+    private static boolean matches(double expected, double stored) {
+        return Math.abs(expected - stored) <= CENT_TOLERANCE + RELATIVE_TOLERANCE * Math.max(Math.abs(expected), Math.abs(stored));
+    }
+
+    public static final class StoredState {
+        private final int transactionCount;
+        private final int accountIdCount;
+        private final String[] accountNumbers;
+        private final double[] balances;
+        private final double[] openingBalances;
+        private final TransactionStatistics statistics;
+        private final CsrMatrix matrix;
+        private final String[] matrixAccountNumbers;
+
+        private StoredState(int transactionCount, int accountIdCount, String[] accountNumbers, double[] balances, double[] openingBalances,
+                TransactionStatistics statistics, CsrMatrix matrix, String[] matrixAccountNumbers) {
+            this.transactionCount = transactionCount;
+            this.accountIdCount = accountIdCount;
+            this.accountNumbers = accountNumbers;
+            this.balances = balances;
+            this.openingBalances = openingBalances;
+            this.statistics = statistics;
+            this.matrix = matrix;
+            this.matrixAccountNumbers = matrixAccountNumbers;
+        }
+
+        public int getTransactionCount() {
+            return transactionCount;
+        }
+    }
+
+    private static final class Collector {
+        private final StoredState stored;
+        private final AccountDictionary dictionary;
+        private final int[] matrixAccountIds;
+        private final int[] matrixRowById;
+        private final Writer writer;
+        private final long[] mismatchCounts = new long[ReconciliationReport.MismatchKind.values().length];
+        private final List<ReconciliationReport.Mismatch> sample = new ArrayList<>();
+        private int accountsWithoutOpeningBalance;
+        private long checkedMatrixCells;
+
+        Collector(StoredState stored, AccountDictionary dictionary, int[] matrixAccountIds, int[] matrixRowById, Writer writer) throws IOException {
+            this.stored = stored;
+            this.dictionary = dictionary;
+            this.matrixAccountIds = matrixAccountIds;
+            this.matrixRowById = matrixRowById;
+            this.writer = writer;
+            if (writer != null) {
+                writer.write("kind,subject,counterparty,replayed,stored,difference\n");
+            }
+        }
+
+        void checkStatistics(TransactionStatistics replayed) throws IOException {
+            TransactionStatistics statistics = stored.statistics;
+            if (replayed.getTransactionCount() != statistics.getTransactionCount()) {
+                mismatch(ReconciliationReport.MismatchKind.STATISTICS, "count", null, replayed.getTransactionCount(), statistics.getTransactionCount());
+            }
+            checkStatistic("total", replayed.getTotalAmount(), statistics.getTotalAmount());
+            checkStatistic("average", replayed.getAverageAmount(), statistics.getAverageAmount());
+            checkStatistic("min", replayed.getMinAmount(), statistics.getMinAmount());
+            checkStatistic("max", replayed.getMaxAmount(), statistics.getMaxAmount());
+        }
+
+        private void checkStatistic(String name, double replayed, double storedValue) throws IOException {
+            if (!matches(replayed, storedValue)) {
+                mismatch(ReconciliationReport.MismatchKind.STATISTICS, name, null, replayed, storedValue);
+            }
+        }
+
+        void checkAccounts(Partial partial, int firstAccountId, int[] storedAccountById, int[] matrixRowById) throws IOException {
+            for (int offset = 0; offset < partial.netMovements.length; offset++) {
+                int accountId = firstAccountId + offset;
+                int storedIndex = storedAccountById[accountId];
+                if (storedIndex >= 0) {
+                    checkBalance(storedIndex, partial.netMovements[offset]);
+                } else if (partial.transactionCounts[offset] > 0) {
+                    mismatch(ReconciliationReport.MismatchKind.UNKNOWN_ACCOUNT, dictionary.getAccountNo(accountId), null, partial.netMovements[offset], 0);
+                }
+                int matrixRow = matrixRowById[accountId];
+                SparseRow row = partial.rows[offset];
+                if (matrixRow >= 0) {
+                    checkMatrixRow(matrixRow, row);
+                } else if (row != null) {
+                    for (int destinationId : row.sortedColumns()) {
+                        mismatch(ReconciliationReport.MismatchKind.MATRIX, dictionary.getAccountNo(accountId), dictionary.getAccountNo(destinationId),
+                                row.get(destinationId), 0);
+                    }
+                }
+            }
+        }
+
+        void checkBalance(int storedIndex, double netMovement) throws IOException {
+            double balance = stored.balances[storedIndex];
+            double openingBalance = stored.openingBalances[storedIndex];
+            if (Double.isNaN(openingBalance)) {
+                accountsWithoutOpeningBalance++;
+                if (balance - netMovement < -CENT_TOLERANCE) {
+                    mismatch(ReconciliationReport.MismatchKind.OPENING_BALANCE, stored.accountNumbers[storedIndex], null, netMovement, balance);
+                }
+            } else if (!matches(openingBalance + netMovement, balance)) {
+                mismatch(ReconciliationReport.MismatchKind.BALANCE, stored.accountNumbers[storedIndex], null, openingBalance + netMovement, balance);
+            }
+        }
+
+        void checkMatrixRow(int matrixRow, SparseRow row) throws IOException {
+            CsrMatrix matrix = stored.matrix;
+            if (matrixRow >= matrix.getSize()) {
+                return;
+            }
+            int matchedCells = 0;
+            for (int k = matrix.getRowStart(matrixRow); k < matrix.getRowEnd(matrixRow); k++) {
+                int column = matrix.getColumn(k);
+                int destinationId = matrixAccountIds[column];
+                double replayed = row == null || destinationId == AccountDictionary.NO_ACCOUNT ? 0 : row.get(destinationId);
+                if (replayed != 0) {
+                    matchedCells++;
+                }
+                if (!matches(replayed, matrix.getValue(k))) {
+                    mismatch(ReconciliationReport.MismatchKind.MATRIX, stored.matrixAccountNumbers[matrixRow], stored.matrixAccountNumbers[column],
+                            replayed, matrix.getValue(k));
+                }
+            }
+            checkedMatrixCells += matrix.getRowEnd(matrixRow) - matrix.getRowStart(matrixRow);
+            if (row == null || matchedCells == row.size()) {
+                return;
+            }
+            for (int destinationId : row.sortedColumns()) {
+                int column = matrixRowById[destinationId];
+                if (column < 0 || matrix.get(matrixRow, column) == 0) {
+                    mismatch(ReconciliationReport.MismatchKind.MATRIX, stored.matrixAccountNumbers[matrixRow], dictionary.getAccountNo(destinationId),
+                            row.get(destinationId), 0);
+                }
+            }
+        }
+
+        private void mismatch(ReconciliationReport.MismatchKind kind, String subject, String counterparty, double replayed, double storedValue) throws IOException {
+            mismatchCounts[kind.ordinal()]++;
+            ReconciliationReport.Mismatch mismatch = new ReconciliationReport.Mismatch(kind, subject, counterparty, replayed, storedValue);
+            if (sample.size() < SAMPLE_SIZE) {
+                sample.add(mismatch);
+            }
+            if (writer != null) {
+                writer.write(kind + "," + ReportWriter.csvField(subject) + "," + ReportWriter.csvField(counterparty) + ","
+                        + ReportWriter.formatAmount(replayed) + "," + ReportWriter.formatAmount(storedValue) + ","
+                        + ReportWriter.formatAmount(mismatch.getDifference()) + "\n");
+            }
+        }
+    }
+
+    private static final class Partial {
+        private final double[] netMovements;
+        private final int[] transactionCounts;
+        private final SparseRow[] rows;
+        private final TransactionStatistics statistics;
+
+        Partial(int accountCount, boolean withStatistics) {
+            this.netMovements = new double[accountCount];
+            this.transactionCounts = new int[accountCount];
+            this.rows = new SparseRow[accountCount];
+            this.statistics = withStatistics ? new TransactionStatistics(1, false) : null;
+        }
+
+        Partial merge(Partial other) {
+            for (int i = 0; i < netMovements.length; i++) {
+                netMovements[i] += other.netMovements[i];
+                transactionCounts[i] += other.transactionCounts[i];
+                SparseRow otherRow = other.rows[i];
+                if (otherRow == null) {
+                    continue;
+                }
+                if (rows[i] == null) {
+                    rows[i] = otherRow;
+                } else {
+                    for (int column : otherRow.sortedColumns()) {
+                        rows[i].add(column, otherRow.get(column));
+                    }
+                }
+            }
+            if (statistics != null) {
+                statistics.merge(other.statistics);
+            }
+            return this;
+        }
+    }
+
+    private final class SliceTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int sliceSize;
+        private final int firstAccountId;
+        private final int lastAccountId;
+        private final boolean withStatistics;
+
+        SliceTask(int from, int to, int sliceSize, int firstAccountId, int lastAccountId, boolean withStatistics) {
+            this.from = from;
+            this.to = to;
+            this.sliceSize = sliceSize;
+            this.firstAccountId = firstAccountId;
+            this.lastAccountId = lastAccountId;
+            this.withStatistics = withStatistics;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > sliceSize) {
+                int middle = (from + to) >>> 1;
+                SliceTask right = new SliceTask(middle, to, sliceSize, firstAccountId, lastAccountId, withStatistics);
+                right.fork();
+                Partial left = new SliceTask(from, middle, sliceSize, firstAccountId, lastAccountId, withStatistics).compute();
+                return left.merge(right.join());
+            }
+            Partial partial = new Partial(lastAccountId - firstAccountId, withStatistics);
+            TransactionLog.Cursor cursor = transactions.cursor(from, to);
+            while (cursor.next()) {
+                double amount = cursor.getAmount();
+                if (partial.statistics != null) {
+                    partial.statistics.addTransactionAmount(amount);
+                }
+                TransactionType type = cursor.getType();
+                if (type == null) {
+                    continue;
+                }
+                int source = cursor.getSourceAccountId() - firstAccountId;
+                switch (type) {
+                    case DEPOSIT:
+                    case INTEREST:
+                        move(partial, source, amount);
+                        break;
+                    case WITHDRAWAL:
+                        move(partial, source, -amount);
+                        break;
+                    case TRANSFER:
+                        int destinationId = cursor.getDestinationAccountId();
+                        move(partial, source, -amount);
+                        move(partial, destinationId - firstAccountId, amount);
+                        if (inPass(partial, source) && destinationId != AccountDictionary.NO_ACCOUNT) {
+                            if (partial.rows[source] == null) {
+                                partial.rows[source] = new SparseRow();
+                            }
+                            partial.rows[source].add(destinationId, amount);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return partial;
+        }
+
+        private boolean inPass(Partial partial, int offset) {
+            return offset >= 0 && offset < partial.netMovements.length;
+        }
+
+        private void move(Partial partial, int offset, double amount) {
+            if (inPass(partial, offset)) {
+                partial.netMovements[offset] += amount;
+                partial.transactionCounts[offset]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package utils;
+
+import java.util.List;
+
+public class ReconciliationReport {
+    private final int transactionCount;
+    private final int accountCount;
+    private final int passCount;
+    private final int accountsWithoutOpeningBalance;
+    private final long checkedMatrixCells;
+    private final long[] mismatchCounts;
+    private final List<Mismatch> sampleMismatches;
+    private final long elapsedNanos;
+
+    ReconciliationReport(int transactionCount, int accountCount, int passCount, int accountsWithoutOpeningBalance, long checkedMatrixCells,
+            long[] mismatchCounts, List<Mismatch> sampleMismatches, long elapsedNanos) {
+        this.transactionCount = transactionCount;
+        this.accountCount = accountCount;
+        this.passCount = passCount;
+        this.accountsWithoutOpeningBalance = accountsWithoutOpeningBalance;
+        this.checkedMatrixCells = checkedMatrixCells;
+        this.mismatchCounts = mismatchCounts;
+        this.sampleMismatches = sampleMismatches;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public int getPassCount() {
+        return passCount;
+    }
+
+    public int getAccountsWithoutOpeningBalance() {
+        return accountsWithoutOpeningBalance;
+    }
+
+    public long getCheckedMatrixCells() {
+        return checkedMatrixCells;
+    }
+
+    public long getMismatchCount(MismatchKind kind) {
+        return mismatchCounts[kind.ordinal()];
+    }
+
+    public long getMismatchCount() {
+        long total = 0;
+        for (long count : mismatchCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public boolean isConsistent() {
+        return getMismatchCount() == 0;
+    }
+
+    public List<Mismatch> getSampleMismatches() {
+        return sampleMismatches;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public enum MismatchKind {
+        BALANCE,
+        OPENING_BALANCE,
+        UNKNOWN_ACCOUNT,
+        STATISTICS,
+        MATRIX
+    }
+
+    public static class Mismatch {
+        private final MismatchKind kind;
+        private final String subject;
+        private final String counterparty;
+        private final double expected;
+        private final double stored;
+
+        Mismatch(MismatchKind kind, String subject, String counterparty, double expected, double stored) {
+            this.kind = kind;
+            this.subject = subject;
+            this.counterparty = counterparty;
+            this.expected = expected;
+            this.stored = stored;
+        }
+
+        public MismatchKind getKind() {
+            return kind;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getCounterparty() {
+            return counterparty;
+        }
+
+        public double getExpected() {
+            return expected;
+        }
+
+        public double getStored() {
+            return stored;
+        }
+
+        public double getDifference() {
+            return stored - expected;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + subject + (counterparty == null ? "" : " -> " + counterparty)
+                    + String.format(": replayed %.2f, stored %.2f", expected, stored);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package utils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import entities.Account;
+
+public class ReportEngine {
+    private static final int MIN_SLICE_SIZE = 1 << 16;
+    private static final int SLICES_PER_THREAD = 4;
+    private static final long DAY_MILLIS = 24L * 3600 * 1000;
+
+    private final TransactionLog transactions;
+    private final AccountRegistry accounts;
+    private final ForkJoinPool pool;
+    private final ZoneId zone;
+
+    public ReportEngine(TransactionLog transactions, AccountRegistry accounts) {
+        this(transactions, accounts, ForkJoinPool.commonPool(), ZoneId.systemDefault());
+    }
+
+    public ReportEngine(TransactionLog transactions, AccountRegistry accounts, ForkJoinPool pool, ZoneId zone) {
+        this.transactions = transactions;
+        this.accounts = accounts;
+        this.pool = pool;
+        this.zone = zone;
+    }
+
+    public TransactionReport generate(int topCount) {
+        if (topCount <= 0) {
+            throw new IllegalArgumentException("The number of top accounts must be positive.");
+        }
+        long startNanos = System.nanoTime();
+        int transactionCount = transactions.size();
+        int accountIdCount = transactions.getAccountDictionary().size();
+        int sliceSize = Math.max(MIN_SLICE_SIZE, transactionCount / (pool.getParallelism() * SLICES_PER_THREAD) + 1);
+        Partial partial = pool.invoke(new SliceTask(0, transactionCount, sliceSize, accountIdCount));
+
+        SortedMap<LocalDate, TransactionReport.PeriodVolume> dailyVolumes = new TreeMap<>();
+        SortedMap<YearMonth, TransactionReport.PeriodVolume> monthlyVolumes = new TreeMap<>();
+        for (Map.Entry<Long, TransactionReport.PeriodVolume> entry : partial.dailyVolumes.entrySet()) {
+            LocalDate date = LocalDate.ofEpochDay(entry.getKey());
+            dailyVolumes.put(date, entry.getValue());
+            monthlyVolumes.computeIfAbsent(YearMonth.from(date), month -> new TransactionReport.PeriodVolume()).merge(entry.getValue());
+        }
+
+        AccountDictionary accountDictionary = transactions.getAccountDictionary();
+        List<Account> accountList = accounts.getAccounts();
+        List<TransactionReport.AccountTotals> accountTotals = new ArrayList<>(accountList.size());
+        Map<String, TransactionReport.OwnerTotals> owners = new HashMap<>();
+        PriorityQueue<TransactionReport.AccountTotals> topInflows = new PriorityQueue<>(Comparator.comparingDouble(TransactionReport.AccountTotals::getInflow));
+        PriorityQueue<TransactionReport.AccountTotals> topOutflows = new PriorityQueue<>(Comparator.comparingDouble(TransactionReport.AccountTotals::getOutflow));
+        for (Account account : accountList) {
+            int accountId = accountDictionary.find(account.getAccountNo());
+            boolean reported = accountId != AccountDictionary.NO_ACCOUNT && accountId < accountIdCount;
+            TransactionReport.AccountTotals totals = new TransactionReport.AccountTotals(account.getAccountNo(), account.getOwner(),
+                    reported ? partial.inflows[accountId] : 0, reported ? partial.outflows[accountId] : 0);
+            accountTotals.add(totals);
+            owners.computeIfAbsent(account.getOwner(), TransactionReport.OwnerTotals::new).add(totals);
+            offerTop(topInflows, totals, topCount);
+            offerTop(topOutflows, totals, topCount);
+        }
+        List<TransactionReport.OwnerTotals> ownerTotals = new ArrayList<>(owners.values());
+        ownerTotals.sort(Comparator.comparing(TransactionReport.OwnerTotals::getOwner, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        return new TransactionReport(transactionCount, System.nanoTime() - startNanos, dailyVolumes, monthlyVolumes, ownerTotals,
+                drainDescending(topInflows), drainDescending(topOutflows), accountTotals);
+    }
+
+    private static void offerTop(PriorityQueue<TransactionReport.AccountTotals> top, TransactionReport.AccountTotals totals, int topCount) {
+        if (top.size() < topCount) {
+            top.add(totals);
+        } else if (top.comparator().compare(totals, top.peek()) > 0) {
+            top.poll();
+            top.add(totals);
+        }
+    }
+
+    private static List<TransactionReport.AccountTotals> drainDescending(PriorityQueue<TransactionReport.AccountTotals> top) {
+        List<TransactionReport.AccountTotals> drained = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            drained.add(top.poll());
+        }
+        Collections.reverse(drained);
+        return drained;
+    }
+
+    private static final class Partial {
+        private final Map<Long, TransactionReport.PeriodVolume> dailyVolumes = new HashMap<>();
+        private final double[] inflows;
+        private final double[] outflows;
+
+        Partial(int accountIdCount) {
+            this.inflows = new double[accountIdCount];
+            this.outflows = new double[accountIdCount];
+        }
+
+        Partial merge(Partial other) {
+            for (Map.Entry<Long, TransactionReport.PeriodVolume> entry : other.dailyVolumes.entrySet()) {
+                TransactionReport.PeriodVolume volume = dailyVolumes.putIfAbsent(entry.getKey(), entry.getValue());
+                if (volume != null) {
+                    volume.merge(entry.getValue());
+                }
+            }
+            for (int accountId = 0; accountId < inflows.length; accountId++) {
+                inflows[accountId] += other.inflows[accountId];
+                outflows[accountId] += other.outflows[accountId];
+            }
+            return this;
+        }
+    }
+
+    private final class SliceTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int sliceSize;
+        private final int accountIdCount;
+
+        SliceTask(int from, int to, int sliceSize, int accountIdCount) {
+            this.from = from;
+            this.to = to;
+            this.sliceSize = sliceSize;
+            this.accountIdCount = accountIdCount;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > sliceSize) {
+                int middle = (from + to) >>> 1;
+                SliceTask right = new SliceTask(middle, to, sliceSize, accountIdCount);
+                right.fork();
+                Partial left = new SliceTask(from, middle, sliceSize, accountIdCount).compute();
+                return left.merge(right.join());
+            }
+            Partial partial = new Partial(accountIdCount);
+            ZoneRules rules = zone.getRules();
+            boolean fixedOffset = rules.isFixedOffset();
+            long offsetMillis = fixedOffset ? rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L : 0;
+            long dayStart = 0;
+            long dayEnd = 0;
+            TransactionReport.PeriodVolume volume = null;
+            TransactionLog.Cursor cursor = transactions.cursor(from, to);
+            while (cursor.next()) {
+                TransactionType type = cursor.getType();
+                if (type == null) {
+                    continue;
+                }
+                double amount = cursor.getAmount();
+                int sourceAccountId = cursor.getSourceAccountId();
+                switch (type) {
+                    case DEPOSIT:
+                    case INTEREST:
+                        addTo(partial.inflows, sourceAccountId, amount);
+                        break;
+                    case WITHDRAWAL:
+                        addTo(partial.outflows, sourceAccountId, amount);
+                        break;
+                    case TRANSFER:
+                        addTo(partial.outflows, sourceAccountId, amount);
+                        addTo(partial.inflows, cursor.getDestinationAccountId(), amount);
+                        break;
+                    default:
+                        break;
+                }
+                if (!cursor.hasDate()) {
+                    continue;
+                }
+                long timestamp = cursor.getTimestampMillis();
+                if (volume == null || timestamp < dayStart || timestamp >= dayEnd) {
+                    long epochDay;
+                    if (fixedOffset) {
+                        epochDay = Math.floorDiv(timestamp + offsetMillis, DAY_MILLIS);
+                        dayStart = epochDay * DAY_MILLIS - offsetMillis;
+                        dayEnd = dayStart + DAY_MILLIS;
+                    } else {
+                        LocalDate date = Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
+                        epochDay = date.toEpochDay();
+                        dayStart = date.atStartOfDay(zone).toInstant().toEpochMilli();
+                        dayEnd = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+                    }
+                    volume = partial.dailyVolumes.computeIfAbsent(epochDay, day -> new TransactionReport.PeriodVolume());
+                }
+                volume.add(type.ordinal(), amount);
+            }
+            return partial;
+        }
+
+        private void addTo(double[] totals, int accountId, double amount) {
+            if (accountId >= 0 && accountId < totals.length) {
+                totals[accountId] += amount;
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.stream.JsonWriter;
+
+import metrics.Metrics;
+
+public class ReportWriter {
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    public static void writeCsv(TransactionReport report, String directory) {
+        long startNanos = System.nanoTime();
+        File target = new File(directory);
+        if (!target.isDirectory() && !target.mkdirs()) {
+            System.out.println("Error: Could not create report directory " + directory);
+            return;
+        }
+        try {
+            long bytes = 0;
+            try (Writer writer = open(new File(target, "daily_volumes.csv"))) {
+                writer.write("date,type,count,amount\n");
+                for (Map.Entry<LocalDate, TransactionReport.PeriodVolume> entry : report.getDailyVolumes().entrySet()) {
+                    writeCsvVolume(writer, entry.getKey().toString(), entry.getValue());
+                }
+            }
+            try (Writer writer = open(new File(target, "monthly_volumes.csv"))) {
+                writer.write("month,type,count,amount\n");
+                for (Map.Entry<YearMonth, TransactionReport.PeriodVolume> entry : report.getMonthlyVolumes().entrySet()) {
+                    writeCsvVolume(writer, entry.getKey().toString(), entry.getValue());
+                }
+            }
+            try (Writer writer = open(new File(target, "owner_totals.csv"))) {
+                writer.write("owner,accounts,inflow,outflow,net\n");
+                for (TransactionReport.OwnerTotals owner : report.getOwnerTotals()) {
+                    writer.write(csvField(owner.getOwner()) + "," + owner.getAccountCount() + "," + formatAmount(owner.getInflow()) + ","
+                            + formatAmount(owner.getOutflow()) + "," + formatAmount(owner.getNetMovement()) + "\n");
+                }
+            }
+            writeCsvAccounts(new File(target, "top_inflows.csv"), report.getTopInflows());
+            writeCsvAccounts(new File(target, "top_outflows.csv"), report.getTopOutflows());
+            writeCsvAccounts(new File(target, "account_movements.csv"), report.getAccountTotals());
+            for (File file : target.listFiles((dir, name) -> name.endsWith(".csv"))) {
+                bytes += file.length();
+            }
+            Metrics.recordIo("io.save.report", startNanos, bytes);
+            System.out.println("Report saved to " + directory);
+        } catch (IOException e) {
+            System.out.println("Error: Could not write report to " + directory + ": " + e.getMessage());
+        }
+    }
+
+    public static void writeJson(TransactionReport report, String filename) {
+        long startNanos = System.nanoTime();
+        try (JsonWriter writer = new JsonWriter(open(new File(filename)))) {
+            writer.setIndent("  ");
+            writer.beginObject();
+            writer.name("transactionCount").value(report.getTransactionCount());
+            writer.name("dailyVolumes").beginArray();
+            for (Map.Entry<LocalDate, TransactionReport.PeriodVolume> entry : report.getDailyVolumes().entrySet()) {
+                writeJsonVolume(writer, "date", entry.getKey().toString(), entry.getValue());
+            }
+            writer.endArray();
+            writer.name("monthlyVolumes").beginArray();
+            for (Map.Entry<YearMonth, TransactionReport.PeriodVolume> entry : report.getMonthlyVolumes().entrySet()) {
+                writeJsonVolume(writer, "month", entry.getKey().toString(), entry.getValue());
+            }
+            writer.endArray();
+            writer.name("ownerTotals").beginArray();
+            for (TransactionReport.OwnerTotals owner : report.getOwnerTotals()) {
+                writer.beginObject();
+                writer.name("owner").value(owner.getOwner());
+                writer.name("accounts").value(owner.getAccountCount());
+                writer.name("inflow").value(roundAmount(owner.getInflow()));
+                writer.name("outflow").value(roundAmount(owner.getOutflow()));
+                writer.name("net").value(roundAmount(owner.getNetMovement()));
+                writer.endObject();
+            }
+            writer.endArray();
+            writeJsonAccounts(writer, "topInflows", report.getTopInflows());
+            writeJsonAccounts(writer, "topOutflows", report.getTopOutflows());
+            writeJsonAccounts(writer, "accountMovements", report.getAccountTotals());
+            writer.endObject();
+            writer.flush();
+            Metrics.recordIo("io.save.report", startNanos, new File(filename).length());
+            System.out.println("Report saved to " + filename);
+        } catch (IOException e) {
+            System.out.println("Error: Could not write report to " + filename + ": " + e.getMessage());
+        }
+    }
+
+    static Writer open(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static void writeCsvVolume(Writer writer, String period, TransactionReport.PeriodVolume volume) throws IOException {
+        for (TransactionType type : TYPES) {
+            if (volume.getCount(type) > 0) {
+                writer.write(period + "," + type + "," + volume.getCount(type) + "," + formatAmount(volume.getAmount(type)) + "\n");
+            }
+        }
+    }
+
+    private static void writeCsvAccounts(File file, List<TransactionReport.AccountTotals> accounts) throws IOException {
+        try (Writer writer = open(file)) {
+            writer.write("accountNo,owner,inflow,outflow,net\n");
+            for (TransactionReport.AccountTotals account : accounts) {
+                writer.write(csvField(account.getAccountNo()) + "," + csvField(account.getOwner()) + "," + formatAmount(account.getInflow()) + ","
+                        + formatAmount(account.getOutflow()) + "," + formatAmount(account.getNetMovement()) + "\n");
+            }
+        }
+    }
+
+    private static void writeJsonVolume(JsonWriter writer, String periodName, String period, TransactionReport.PeriodVolume volume) throws IOException {
+        for (TransactionType type : TYPES) {
+            if (volume.getCount(type) > 0) {
+                writer.beginObject();
+                writer.name(periodName).value(period);
+                writer.name("type").value(type.toString());
+                writer.name("count").value(volume.getCount(type));
+                writer.name("amount").value(roundAmount(volume.getAmount(type)));
+                writer.endObject();
+            }
+        }
+    }
+
+    private static void writeJsonAccounts(JsonWriter writer, String name, List<TransactionReport.AccountTotals> accounts) throws IOException {
+        writer.name(name).beginArray();
+        for (TransactionReport.AccountTotals account : accounts) {
+            writer.beginObject();
+            writer.name("accountNo").value(account.getAccountNo());
+            writer.name("owner").value(account.getOwner());
+            writer.name("inflow").value(roundAmount(account.getInflow()));
+            writer.name("outflow").value(roundAmount(account.getOutflow()));
+            writer.name("net").value(roundAmount(account.getNetMovement()));
+            writer.endObject();
+        }
+        writer.endArray();
+    }
+
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    static String formatAmount(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static double roundAmount(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
@@ -0,0 +1,190 @@
+package utils;
+
+import java.util.Arrays;
+
+import entities.Transaction;
+
+public class RollingStatistics {
+    public static final long SECOND_MILLIS = 1_000L;
+    public static final long MINUTE_MILLIS = 60 * SECOND_MILLIS;
+    public static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+    public static final long LONGEST_WINDOW_MILLIS = 24 * HOUR_MILLIS;
+
+    private static final int TYPE_COUNT = TransactionType.values().length;
+
+    private final RollingWindow lastMinute = new RollingWindow("Last minute", SECOND_MILLIS, 60);
+    private final RollingWindow lastHour = new RollingWindow("Last hour", MINUTE_MILLIS, 60);
+    private final RollingWindow lastDay = new RollingWindow("Last day", 15 * MINUTE_MILLIS, (int) (LONGEST_WINDOW_MILLIS / (15 * MINUTE_MILLIS)));
+
+    public synchronized void addTransaction(Transaction transaction) {
+        if (transaction.getDate() == null || transaction.getType() == null) {
+            return;
+        }
+        addTransaction(transaction.getType(), transaction.getAmount(), transaction.getDate().getTime());
+    }
+
+    public synchronized void addTransactions(TransactionLog.Cursor cursor) {
+        long nowMillis = System.currentTimeMillis();
+        while (cursor.next()) {
+            if (cursor.hasDate() && cursor.getType() != null) {
+                addTransaction(cursor.getType(), cursor.getAmount(), cursor.getTimestampMillis(), nowMillis);
+            }
+        }
+    }
+
+    public synchronized void addTransaction(TransactionType type, double amount, long timestampMillis) {
+        addTransaction(type, amount, timestampMillis, System.currentTimeMillis());
+    }
+
+    private void addTransaction(TransactionType type, double amount, long timestampMillis, long nowMillis) {
+        lastMinute.add(type.ordinal(), amount, timestampMillis, nowMillis);
+        lastHour.add(type.ordinal(), amount, timestampMillis, nowMillis);
+        lastDay.add(type.ordinal(), amount, timestampMillis, nowMillis);
+    }
+
+    public synchronized WindowSummary getLastMinute(long nowMillis) {
+        return lastMinute.summarize(nowMillis);
+    }
+
+    public synchronized WindowSummary getLastHour(long nowMillis) {
+        return lastHour.summarize(nowMillis);
+    }
+
+    public synchronized WindowSummary getLastDay(long nowMillis) {
+        return lastDay.summarize(nowMillis);
+    }
+
+    public synchronized WindowSummary[] getAllWindows(long nowMillis) {
+        return new WindowSummary[] {lastMinute.summarize(nowMillis), lastHour.summarize(nowMillis), lastDay.summarize(nowMillis)};
+    }
+
+    private static class RollingWindow {
+        private final String name;
+        private final long bucketMillis;
+        private final int bucketCount;
+        private final long[] bucketIds;
+        private final long[] counts;
+        private final double[] volumes;
+        private final double[] minAmounts;
+        private final double[] maxAmounts;
+        private final long[] typeCounts;
+        private final double[] typeVolumes;
+        private long latestBucketId = Long.MIN_VALUE;
+
+        RollingWindow(String name, long bucketMillis, int bucketCount) {
+            this.name = name;
+            this.bucketMillis = bucketMillis;
+            this.bucketCount = bucketCount;
+            this.bucketIds = new long[bucketCount];
+            this.counts = new long[bucketCount];
+            this.volumes = new double[bucketCount];
+            this.minAmounts = new double[bucketCount];
+            this.maxAmounts = new double[bucketCount];
+            this.typeCounts = new long[bucketCount * TYPE_COUNT];
+            this.typeVolumes = new double[bucketCount * TYPE_COUNT];
+            Arrays.fill(bucketIds, Long.MIN_VALUE);
+        }
+
+        void add(int typeIndex, double amount, long timestampMillis, long nowMillis) {
+            if (timestampMillis > nowMillis + bucketMillis) {
+                return;
+            }
+            long bucketId = Math.floorDiv(timestampMillis, bucketMillis);
+            if (latestBucketId != Long.MIN_VALUE && bucketId <= latestBucketId - bucketCount) {
+                return;
+            }
+            latestBucketId = Math.max(latestBucketId, bucketId);
+            int slot = (int) Math.floorMod(bucketId, (long) bucketCount);
+            if (bucketIds[slot] != bucketId) {
+                if (bucketIds[slot] > bucketId) {
+                    return;
+                }
+                resetSlot(slot, bucketId);
+            }
+            counts[slot]++;
+            volumes[slot] += amount;
+            minAmounts[slot] = Math.min(minAmounts[slot], amount);
+            maxAmounts[slot] = Math.max(maxAmounts[slot], amount);
+            typeCounts[slot * TYPE_COUNT + typeIndex]++;
+            typeVolumes[slot * TYPE_COUNT + typeIndex] += amount;
+        }
+
+        private void resetSlot(int slot, long bucketId) {
+            bucketIds[slot] = bucketId;
+            counts[slot] = 0;
+            volumes[slot] = 0;
+            minAmounts[slot] = Double.POSITIVE_INFINITY;
+            maxAmounts[slot] = Double.NEGATIVE_INFINITY;
+            Arrays.fill(typeCounts, slot * TYPE_COUNT, (slot + 1) * TYPE_COUNT, 0);
+            Arrays.fill(typeVolumes, slot * TYPE_COUNT, (slot + 1) * TYPE_COUNT, 0);
+        }
+
+        WindowSummary summarize(long nowMillis) {
+            long nowBucketId = Math.floorDiv(nowMillis, bucketMillis);
+            WindowSummary summary = new WindowSummary(name, bucketMillis * bucketCount);
+            for (int slot = 0; slot < bucketCount; slot++) {
+                long bucketId = bucketIds[slot];
+                if (bucketId == Long.MIN_VALUE || bucketId > nowBucketId || bucketId <= nowBucketId - bucketCount || counts[slot] == 0) {
+                    continue;
+                }
+                summary.count += counts[slot];
+                summary.volume += volumes[slot];
+                summary.minAmount = Math.min(summary.minAmount, minAmounts[slot]);
+                summary.maxAmount = Math.max(summary.maxAmount, maxAmounts[slot]);
+                for (int type = 0; type < TYPE_COUNT; type++) {
+                    summary.typeCounts[type] += typeCounts[slot * TYPE_COUNT + type];
+                    summary.typeVolumes[type] += typeVolumes[slot * TYPE_COUNT + type];
+                }
+            }
+            return summary;
+        }
+    }
+
+    public static class WindowSummary {
+        private final String name;
+        private final long durationMillis;
+        private long count;
+        private double volume;
+        private double minAmount = Double.POSITIVE_INFINITY;
+        private double maxAmount = Double.NEGATIVE_INFINITY;
+        private final long[] typeCounts = new long[TYPE_COUNT];
+        private final double[] typeVolumes = new double[TYPE_COUNT];
+
+        WindowSummary(String name, long durationMillis) {
+            this.name = name;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getVolume() {
+            return volume;
+        }
+
+        public double getMinAmount() {
+            return count == 0 ? 0 : minAmount;
+        }
+
+        public double getMaxAmount() {
+            return count == 0 ? 0 : maxAmount;
+        }
+
+        public long getCount(TransactionType type) {
+            return typeCounts[type.ordinal()];
+        }
+
+        public double getVolume(TransactionType type) {
+            return typeVolumes[type.ordinal()];
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package utils;
+
+import java.io.IOException;
+import java.util.List;
+
+import entities.Transaction;
+
+public class SnapshotConverter {
+
+    public static void main(String[] args) {
+        if (args.length != 4 || !(args[0].equals("to-binary") || args[0].equals("to-json"))) {
+            System.out.println("Usage: SnapshotConverter to-binary <accounts.json> <transactions.json> <snapshot.bin>");
+            System.out.println("       SnapshotConverter to-json <snapshot.bin> <accounts.json> <transactions.json>");
+            return;
+        }
+        try {
+            if (args[0].equals("to-binary")) {
+                convertToBinary(args[1], args[2], args[3]);
+            } else {
+                convertToJSON(args[1], args[2], args[3]);
+            }
+        } catch (IOException e) {
+            System.out.println("Conversion failed: " + e.getMessage());
+        }
+    }
+
+    public static void convertToBinary(String accountsFile, String transactionsFile, String snapshotFile) throws IOException {
+        AccountRegistry accounts = FileManager.loadAccountsFromJSON(accountsFile);
+        List<Transaction> transactions = FileManager.loadTransactionsFromJSON(transactionsFile, accounts);
+        BinarySnapshot.write(snapshotFile, accounts.getAccounts(), transactions);
+        System.out.println("Wrote " + accounts.size() + " accounts and " + transactions.size() + " transactions to " + snapshotFile);
+    }
+
+    public static void convertToJSON(String snapshotFile, String accountsFile, String transactionsFile) throws IOException {
+        BinarySnapshot snapshot = BinarySnapshot.load(snapshotFile);
+        FileManager.saveAccountsToJSON(snapshot.getAccounts().getAccounts(), accountsFile);
+        FileManager.saveTransactionsToJSON(snapshot.getTransactions(), transactionsFile);
+    }
+}
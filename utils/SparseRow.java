@@ -0,0 +1,78 @@
+package utils;
+
+import java.util.Arrays;
+
+public class SparseRow {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] keys;
+    private double[] values;
+    private int size;
+
+    public SparseRow() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new double[INITIAL_CAPACITY];
+    }
+
+    public double get(int column) {
+        int slot = findSlot(keys, column);
+        return keys[slot] == 0 ? 0 : values[slot];
+    }
+
+    public void add(int column, double amount) {
+        if (column < 0) {
+            throw new IllegalArgumentException("Column index cannot be negative.");
+        }
+        int slot = findSlot(keys, column);
+        if (keys[slot] == 0) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize();
+                slot = findSlot(keys, column);
+            }
+            keys[slot] = column + 1;
+            size++;
+        }
+        values[slot] += amount;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int[] sortedColumns() {
+        int[] columns = new int[size];
+        int count = 0;
+        for (int key : keys) {
+            if (key != 0) {
+                columns[count++] = key - 1;
+            }
+        }
+        Arrays.sort(columns);
+        return columns;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new double[oldValues.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = findSlot(keys, oldKeys[i] - 1);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int findSlot(int[] keys, int column) {
+        int mask = keys.length - 1;
+        int hash = column * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        int stored = column + 1;
+        while (keys[slot] != 0 && keys[slot] != stored) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
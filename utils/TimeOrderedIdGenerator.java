@@ -0,0 +1,47 @@
+package utils;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import entities.TransactionId;
+
+public class TimeOrderedIdGenerator implements TransactionIdGenerator {
+    private static final long VERSION_BITS = 0x7000L;
+    private static final long VARIANT_BITS = 0x8000_0000_0000_0000L;
+    private static final long MAX_SEQUENCE = (1L << 44) - 1;
+    private static final int NODE_MASK = (1 << 30) - 1;
+
+    private final int nodeBase = new SecureRandom().nextInt();
+    private final AtomicInteger nextNode = new AtomicInteger();
+    private final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(this::newThreadState);
+
+    @Override
+    public TransactionId nextId() {
+        ThreadState state = threadState.get();
+        long now = System.currentTimeMillis();
+        if (now > state.lastMillis) {
+            state.lastMillis = now;
+            state.sequence = 0;
+        } else if (++state.sequence > MAX_SEQUENCE) {
+            state.lastMillis++;
+            state.sequence = 0;
+        }
+        long high = (state.lastMillis << 16) | VERSION_BITS | (state.sequence >>> 32);
+        long low = VARIANT_BITS | state.node | (state.sequence & 0xFFFF_FFFFL);
+        return TransactionId.of(high, low);
+    }
+
+    private ThreadState newThreadState() {
+        return new ThreadState((long) ((nodeBase + nextNode.getAndIncrement()) & NODE_MASK) << 32);
+    }
+
+    private static class ThreadState {
+        private final long node;
+        private long lastMillis = Long.MIN_VALUE;
+        private long sequence;
+
+        ThreadState(long node) {
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package utils;
+
+import java.io.IOException;
+import java.util.Date;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import entities.Transaction;
+
+public class TransactionAdapterFactory implements TypeAdapterFactory {
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != Transaction.class) {
+            return null;
+        }
+        return (TypeAdapter<T>) new TransactionAdapter(gson.getAdapter(String.class), gson.getAdapter(double.class),
+                gson.getAdapter(Date.class), gson.getAdapter(TransactionType.class));
+    }
+
+    private static class TransactionAdapter extends TypeAdapter<Transaction> {
+        private final TypeAdapter<String> strings;
+        private final TypeAdapter<Double> doubles;
+        private final TypeAdapter<Date> dates;
+        private final TypeAdapter<TransactionType> types;
+
+        TransactionAdapter(TypeAdapter<String> strings, TypeAdapter<Double> doubles, TypeAdapter<Date> dates, TypeAdapter<TransactionType> types) {
+            this.strings = strings;
+            this.doubles = doubles;
+            this.dates = dates;
+            this.types = types;
+        }
+
+        @Override
+        public void write(JsonWriter out, Transaction transaction) throws IOException {
+            if (transaction == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("transactionId");
+            strings.write(out, transaction.getTransactionId());
+            out.name("amount");
+            doubles.write(out, transaction.getAmount());
+            out.name("date");
+            dates.write(out, transaction.getDate());
+            out.name("type");
+            types.write(out, transaction.getType());
+            out.name("sourceAccountNo");
+            strings.write(out, transaction.getSourceAccountNo());
+            out.name("destinationAccountNo");
+            strings.write(out, transaction.getDestinationAccountNo());
+            out.endObject();
+        }
+
+        @Override
+        public Transaction read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Transaction transaction = new Transaction();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "transactionId":
+                        transaction.setTransactionId(strings.read(in));
+                        break;
+                    case "amount":
+                        Double amount = doubles.read(in);
+                        if (amount != null) {
+                            transaction.setAmount(amount);
+                        }
+                        break;
+                    case "date":
+                        transaction.setDate(dates.read(in));
+                        break;
+                    case "type":
+                        transaction.setType(types.read(in));
+                        break;
+                    case "sourceAccountNo":
+                        transaction.setSourceAccountNo(strings.read(in));
+                        break;
+                    case "destinationAccountNo":
+                        transaction.setDestinationAccountNo(strings.read(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return transaction;
+        }
+    }
+}
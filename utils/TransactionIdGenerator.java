@@ -0,0 +1,18 @@
+package utils;
+
+import entities.TransactionId;
+
+public interface TransactionIdGenerator {
+    TransactionId nextId();
+
+    static TransactionIdGenerator create(String name) {
+        if (name == null || name.equalsIgnoreCase("time-ordered")) {
+            return new TimeOrderedIdGenerator();
+        }
+        if (name.equalsIgnoreCase("random-uuid")) {
+            return new RandomUuidGenerator();
+        }
+        System.out.println("Warning: Unknown transaction ID generator '" + name + "', using time-ordered IDs.");
+        return new TimeOrderedIdGenerator();
+    }
+}
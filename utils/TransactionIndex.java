@@ -0,0 +1,189 @@
+package utils;
+
+import java.util.Arrays;
+
+class TransactionIndex {
+    private static final int MIN_PENDING_MERGE = 4096;
+
+    private int[][] accountPositions = new int[256][];
+    private int[] accountCounts = new int[256];
+    private long[] timestamps = new long[1024];
+    private int[] positions = new int[1024];
+    private int size;
+    private long[] pendingTimestamps = new long[64];
+    private int[] pendingPositions = new int[64];
+    private int pendingSize;
+
+    synchronized void add(int position, long timestamp, boolean hasDate, int sourceAccountId, int destinationAccountId) {
+        if (sourceAccountId >= 0) {
+            addAccountPosition(sourceAccountId, position);
+        }
+        if (destinationAccountId >= 0 && destinationAccountId != sourceAccountId) {
+            addAccountPosition(destinationAccountId, position);
+        }
+        if (!hasDate) {
+            return;
+        }
+        if (pendingSize == 0 && (size == 0 || timestamp >= timestamps[size - 1])) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            timestamps[size] = timestamp;
+            positions[size] = position;
+            size++;
+            return;
+        }
+        if (pendingSize == pendingTimestamps.length) {
+            pendingTimestamps = Arrays.copyOf(pendingTimestamps, pendingSize * 2);
+            pendingPositions = Arrays.copyOf(pendingPositions, pendingSize * 2);
+        }
+        pendingTimestamps[pendingSize] = timestamp;
+        pendingPositions[pendingSize] = position;
+        pendingSize++;
+        if (pendingSize >= Math.max(MIN_PENDING_MERGE, size / 8)) {
+            mergePending();
+        }
+    }
+
+    synchronized Page findByAccount(int accountId, int offset, int limit) {
+        if (accountId < 0 || accountId >= accountCounts.length || accountCounts[accountId] == 0) {
+            return new Page(new int[0], 0);
+        }
+        int total = accountCounts[accountId];
+        int from = Math.min(offset, total);
+        int to = (int) Math.min(total, (long) from + limit);
+        return new Page(Arrays.copyOfRange(accountPositions[accountId], from, to), total);
+    }
+
+    synchronized Page findBetween(long fromMillis, long toMillis, int offset, int limit) {
+        if (pendingSize > 0) {
+            mergePending();
+        }
+        int first = lowerBound(fromMillis);
+        int end = Math.max(first, lowerBound(toMillis));
+        int total = end - first;
+        int from = first + Math.min(offset, total);
+        int to = (int) Math.min(end, (long) from + limit);
+        return new Page(Arrays.copyOfRange(positions, from, to), total);
+    }
+
+    synchronized int firstPositionSince(long fromMillis, int endPosition) {
+        if (pendingSize > 0) {
+            mergePending();
+        }
+        int first = endPosition;
+        for (int i = lowerBound(fromMillis); i < size; i++) {
+            first = Math.min(first, positions[i]);
+        }
+        return first;
+    }
+
+    private void addAccountPosition(int accountId, int position) {
+        if (accountId >= accountCounts.length) {
+            int length = Math.max(accountCounts.length * 2, accountId + 1);
+            accountPositions = Arrays.copyOf(accountPositions, length);
+            accountCounts = Arrays.copyOf(accountCounts, length);
+        }
+        int[] list = accountPositions[accountId];
+        int count = accountCounts[accountId];
+        if (list == null) {
+            list = new int[4];
+        } else if (count == list.length) {
+            list = Arrays.copyOf(list, count * 2);
+        }
+        list[count] = position;
+        accountPositions[accountId] = list;
+        accountCounts[accountId] = count + 1;
+    }
+
+    private int lowerBound(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void mergePending() {
+        sortPending();
+        long[] mergedTimestamps = new long[Math.max(16, size + pendingSize + (size + pendingSize) / 4)];
+        int[] mergedPositions = new int[mergedTimestamps.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < size && j < pendingSize) {
+            if (timestamps[i] < pendingTimestamps[j] || timestamps[i] == pendingTimestamps[j] && positions[i] < pendingPositions[j]) {
+                mergedTimestamps[k] = timestamps[i];
+                mergedPositions[k++] = positions[i++];
+            } else {
+                mergedTimestamps[k] = pendingTimestamps[j];
+                mergedPositions[k++] = pendingPositions[j++];
+            }
+        }
+        while (i < size) {
+            mergedTimestamps[k] = timestamps[i];
+            mergedPositions[k++] = positions[i++];
+        }
+        while (j < pendingSize) {
+            mergedTimestamps[k] = pendingTimestamps[j];
+            mergedPositions[k++] = pendingPositions[j++];
+        }
+        timestamps = mergedTimestamps;
+        positions = mergedPositions;
+        size = k;
+        pendingSize = 0;
+        if (pendingTimestamps.length > MIN_PENDING_MERGE) {
+            pendingTimestamps = new long[64];
+            pendingPositions = new int[64];
+        }
+    }
+
+    private void sortPending() {
+        long[] sourceTimestamps = pendingTimestamps;
+        int[] sourcePositions = pendingPositions;
+        long[] targetTimestamps = new long[pendingSize];
+        int[] targetPositions = new int[pendingSize];
+        for (int width = 1; width < pendingSize; width *= 2) {
+            for (int low = 0; low < pendingSize; low += 2 * width) {
+                int middle = Math.min(low + width, pendingSize);
+                int high = Math.min(low + 2 * width, pendingSize);
+                int i = low;
+                int j = middle;
+                for (int k = low; k < high; k++) {
+                    if (j >= high || i < middle && sourceTimestamps[i] <= sourceTimestamps[j]) {
+                        targetTimestamps[k] = sourceTimestamps[i];
+                        targetPositions[k] = sourcePositions[i++];
+                    } else {
+                        targetTimestamps[k] = sourceTimestamps[j];
+                        targetPositions[k] = sourcePositions[j++];
+                    }
+                }
+            }
+            long[] swapTimestamps = sourceTimestamps;
+            sourceTimestamps = targetTimestamps;
+            targetTimestamps = swapTimestamps;
+            int[] swapPositions = sourcePositions;
+            sourcePositions = targetPositions;
+            targetPositions = swapPositions;
+        }
+        pendingTimestamps = sourceTimestamps;
+        pendingPositions = sourcePositions;
+    }
+
+    static class Page {
+        final int[] positions;
+        final int totalCount;
+
+        Page(int[] positions, int totalCount) {
+            this.positions = positions;
+            this.totalCount = totalCount;
+        }
+    }
+}
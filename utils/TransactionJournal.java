@@ -0,0 +1,199 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import entities.Account;
+import entities.Transaction;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class TransactionJournal implements AutoCloseable {
+    private static final String ACCOUNT_RECORD = "ACCOUNT";
+    private static final String TRANSACTION_RECORD = "TRANSACTION";
+
+    private static final Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").registerTypeAdapterFactory(new TransactionAdapterFactory()).create();
+
+    private final String filename;
+    private FileChannel channel;
+    private final int batchSize;
+    private final ScheduledExecutorService flusher;
+    private int pendingRecords;
+    private boolean closed;
+
+    public interface JournalListener {
+        void onAccount(Account account);
+
+        void onTransaction(Transaction transaction);
+    }
+
+    public TransactionJournal(String filename, int batchSize, long flushIntervalMillis) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Journal batch size must be positive.");
+        }
+        this.filename = filename;
+        this.batchSize = batchSize;
+        this.channel = open(filename);
+        if (flushIntervalMillis > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "transaction-journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    private static FileChannel open(String filename) throws IOException {
+        return FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public void appendAccount(Account account) {
+        JournalRecord record = new JournalRecord();
+        record.kind = ACCOUNT_RECORD;
+        record.account = account;
+        append(record);
+    }
+
+    public void appendTransaction(Transaction transaction) {
+        JournalRecord record = new JournalRecord();
+        record.kind = TRANSACTION_RECORD;
+        record.transaction = transaction;
+        append(record);
+    }
+
+    private void append(JournalRecord record) {
+        write(StandardCharsets.UTF_8.encode(gson.toJson(record) + "\n"));
+    }
+
+    private synchronized void write(ByteBuffer buffer) {
+        if (closed) {
+            throw new IllegalStateException("Journal " + filename + " is closed.");
+        }
+        long position = -1;
+        try {
+            position = channel.size();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            pendingRecords++;
+            if (pendingRecords >= batchSize) {
+                flush();
+            }
+        } catch (IOException e) {
+            discardFrom(position);
+            throw new UncheckedIOException("Could not append to journal " + filename + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void discardFrom(long position) {
+        if (position < 0) {
+            return;
+        }
+        try {
+            channel.truncate(position);
+        } catch (IOException e) {
+            System.out.println("Warning: could not discard a partial record from journal " + filename + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        if (pendingRecords > 0 && !closed) {
+            channel.force(false);
+            pendingRecords = 0;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.out.println("Warning: could not flush journal " + filename + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized void rotate(String archiveFilename) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Journal " + filename + " is closed.");
+        }
+        channel.force(false);
+        pendingRecords = 0;
+        channel.close();
+        try {
+            Files.move(Paths.get(filename), Paths.get(archiveFilename), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            channel = open(filename);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flush();
+        closed = true;
+        channel.close();
+    }
+
+    public static long replay(String filename, JournalListener listener) {
+        long replayed = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                JournalRecord record;
+                try {
+                    record = gson.fromJson(line, JournalRecord.class);
+                } catch (JsonParseException e) {
+                    System.out.println("Warning: Journal record at line " + lineNumber + " is corrupt and will be skipped.");
+                    continue;
+                }
+                if (ACCOUNT_RECORD.equals(record.kind) && record.account != null) {
+                    listener.onAccount(record.account);
+                } else if (TRANSACTION_RECORD.equals(record.kind) && record.transaction != null) {
+                    listener.onTransaction(record.transaction);
+                } else {
+                    System.out.println("Warning: Journal record at line " + lineNumber + " has an unknown kind and will be skipped.");
+                    continue;
+                }
+                replayed++;
+            }
+        } catch (FileNotFoundException e) {
+            return 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return replayed;
+    }
+
+    private static class JournalRecord {
+        private String kind;
+        private Account account;
+        private Transaction transaction;
+    }
+}
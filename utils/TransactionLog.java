@@ -0,0 +1,389 @@
+package utils;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReentrantLock;
+
+import entities.Transaction;
+import entities.TransactionId;
+
+public class TransactionLog extends AbstractList<Transaction> implements RandomAccess {
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    public static final int RECORD_BYTES = 48;
+    public static final int CHUNK_BYTES = CHUNK_SIZE * RECORD_BYTES;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final byte NO_TYPE = -1;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final AccountDictionary accountDictionary;
+    private final OffHeapChunkStore offHeapStore;
+    private final int hotChunks;
+    private final TransactionIndex transactionIndex = new TransactionIndex();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile Chunk[] chunks;
+    private volatile int size;
+
+    public TransactionLog() {
+        this(new AccountDictionary());
+    }
+
+    public TransactionLog(AccountDictionary accountDictionary) {
+        this(accountDictionary, null, 0);
+    }
+
+    public TransactionLog(AccountDictionary accountDictionary, OffHeapChunkStore offHeapStore, int hotChunks) {
+        if (offHeapStore != null && hotChunks < 1) {
+            throw new IllegalArgumentException("At least one chunk must stay on the heap.");
+        }
+        this.accountDictionary = accountDictionary;
+        this.offHeapStore = offHeapStore;
+        this.hotChunks = hotChunks;
+        this.chunks = new Chunk[16];
+    }
+
+    public TransactionLog(Collection<Transaction> transactions) {
+        this();
+        addAll(transactions);
+    }
+
+    public AccountDictionary getAccountDictionary() {
+        return accountDictionary;
+    }
+
+    @Override
+    public boolean add(Transaction transaction) {
+        if (transaction == null) {
+            throw new IllegalArgumentException("Transaction cannot be null.");
+        }
+        TransactionId transactionId = transaction.getId();
+        int sourceAccountId = accountDictionary.intern(transaction.getSourceAccountNo());
+        int destinationAccountId = accountDictionary.intern(transaction.getDestinationAccountNo());
+        appendLock.lock();
+        try {
+            int index = size;
+            int chunkIndex = index >>> CHUNK_SHIFT;
+            Chunk[] currentChunks = chunks;
+            if (chunkIndex == currentChunks.length) {
+                currentChunks = Arrays.copyOf(currentChunks, currentChunks.length * 2);
+            }
+            if (currentChunks[chunkIndex] == null) {
+                currentChunks[chunkIndex] = new HeapChunk();
+                if (offHeapStore != null && chunkIndex >= hotChunks) {
+                    int coldIndex = chunkIndex - hotChunks;
+                    currentChunks[coldIndex] = new OffHeapChunk((HeapChunk) currentChunks[coldIndex], offHeapStore.chunk(coldIndex));
+                }
+            }
+            HeapChunk chunk = (HeapChunk) currentChunks[chunkIndex];
+            int offset = index & CHUNK_MASK;
+            if (transactionId != null) {
+                chunk.idHighs[offset] = transactionId.getHigh();
+                chunk.idLows[offset] = transactionId.getLow();
+                if (transactionId.isLegacy()) {
+                    if (chunk.legacyIds == null) {
+                        chunk.legacyIds = new String[CHUNK_SIZE];
+                    }
+                    chunk.legacyIds[offset] = transactionId.getLegacyId();
+                }
+            }
+            chunk.timestamps[offset] = transaction.getDate() == null ? NO_DATE : transaction.getDate().getTime();
+            chunk.amounts[offset] = transaction.getAmount();
+            chunk.types[offset] = transaction.getType() == null ? NO_TYPE : (byte) transaction.getType().ordinal();
+            chunk.sourceAccountIds[offset] = sourceAccountId;
+            chunk.destinationAccountIds[offset] = destinationAccountId;
+            chunks = currentChunks;
+            size = index + 1;
+            transactionIndex.add(index, chunk.timestamps[offset], transaction.getDate() != null, sourceAccountId, destinationAccountId);
+            return true;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public Transaction get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range for transaction log of size " + size);
+        }
+        Cursor cursor = new Cursor(index, index + 1);
+        cursor.next();
+        return cursor.toTransaction();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public TransactionPage findByAccount(String accountNo, int offset, int limit) {
+        checkPage(offset, limit);
+        int accountId = accountDictionary.find(accountNo);
+        if (accountId == AccountDictionary.NO_ACCOUNT) {
+            return new TransactionPage(new ArrayList<>(), offset, 0);
+        }
+        return toPage(transactionIndex.findByAccount(accountId, offset, limit), offset);
+    }
+
+    public TransactionPage findBetween(Date from, Date to, int offset, int limit) {
+        checkPage(offset, limit);
+        return toPage(transactionIndex.findBetween(from.getTime(), to.getTime(), offset, limit), offset);
+    }
+
+    public int firstPositionSince(Date from) {
+        return transactionIndex.firstPositionSince(from.getTime(), size);
+    }
+
+    private static void checkPage(int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Page offset must not be negative and page size must be positive.");
+        }
+    }
+
+    private TransactionPage toPage(TransactionIndex.Page page, int offset) {
+        List<Transaction> transactions = new ArrayList<>(page.positions.length);
+        for (int position : page.positions) {
+            transactions.add(get(position));
+        }
+        return new TransactionPage(transactions, offset, page.totalCount);
+    }
+
+    public boolean isOffHeap() {
+        return offHeapStore != null;
+    }
+
+    public Cursor cursor() {
+        return new Cursor(0, size);
+    }
+
+    public Cursor cursor(int fromIndex, int toIndex) {
+        int currentSize = size;
+        if (fromIndex < 0 || toIndex > currentSize || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range " + fromIndex + ".." + toIndex + " is out of range for transaction log of size " + currentSize);
+        }
+        return new Cursor(fromIndex, toIndex);
+    }
+
+    public class Cursor {
+        private final Chunk[] cursorChunks;
+        private final int end;
+        private int position;
+        private Chunk chunk;
+        private int offset;
+
+        private Cursor(int fromIndex, int toIndex) {
+            this.end = toIndex;
+            this.cursorChunks = chunks;
+            this.position = fromIndex - 1;
+        }
+
+        public boolean next() {
+            if (position + 1 >= end) {
+                position = end;
+                return false;
+            }
+            position++;
+            chunk = cursorChunks[position >>> CHUNK_SHIFT];
+            offset = position & CHUNK_MASK;
+            return true;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public TransactionId getId() {
+            String legacyId = chunk.legacyIds == null ? null : chunk.legacyIds[offset];
+            if (legacyId != null) {
+                return TransactionId.parse(legacyId);
+            }
+            long high = chunk.idHigh(offset);
+            long low = chunk.idLow(offset);
+            return high == 0 && low == 0 ? null : TransactionId.of(high, low);
+        }
+
+        public String getTransactionId() {
+            TransactionId transactionId = getId();
+            return transactionId == null ? null : transactionId.toString();
+        }
+
+        public double getAmount() {
+            return chunk.amount(offset);
+        }
+
+        public boolean hasDate() {
+            return chunk.timestamp(offset) != NO_DATE;
+        }
+
+        public long getTimestampMillis() {
+            return chunk.timestamp(offset);
+        }
+
+        public Date getDate() {
+            long timestamp = chunk.timestamp(offset);
+            return timestamp == NO_DATE ? null : new Date(timestamp);
+        }
+
+        public TransactionType getType() {
+            byte type = chunk.type(offset);
+            return type == NO_TYPE ? null : TYPES[type];
+        }
+
+        public int getSourceAccountId() {
+            return chunk.sourceAccountId(offset);
+        }
+
+        public int getDestinationAccountId() {
+            return chunk.destinationAccountId(offset);
+        }
+
+        public String getSourceAccountNo() {
+            return accountDictionary.getAccountNo(chunk.sourceAccountId(offset));
+        }
+
+        public String getDestinationAccountNo() {
+            return accountDictionary.getAccountNo(chunk.destinationAccountId(offset));
+        }
+
+        public Transaction toTransaction() {
+            Transaction transaction = new Transaction();
+            transaction.setId(getId());
+            transaction.setAmount(getAmount());
+            transaction.setDate(getDate());
+            transaction.setType(getType());
+            transaction.setSourceAccountNo(getSourceAccountNo());
+            transaction.setDestinationAccountNo(getDestinationAccountNo());
+            return transaction;
+        }
+    }
+
+    private abstract static class Chunk {
+        String[] legacyIds;
+
+        abstract long idHigh(int offset);
+
+        abstract long idLow(int offset);
+
+        abstract long timestamp(int offset);
+
+        abstract double amount(int offset);
+
+        abstract byte type(int offset);
+
+        abstract int sourceAccountId(int offset);
+
+        abstract int destinationAccountId(int offset);
+    }
+
+    private static final class HeapChunk extends Chunk {
+        private final long[] idHighs = new long[CHUNK_SIZE];
+        private final long[] idLows = new long[CHUNK_SIZE];
+        private final long[] timestamps = new long[CHUNK_SIZE];
+        private final double[] amounts = new double[CHUNK_SIZE];
+        private final byte[] types = new byte[CHUNK_SIZE];
+        private final int[] sourceAccountIds = new int[CHUNK_SIZE];
+        private final int[] destinationAccountIds = new int[CHUNK_SIZE];
+
+        @Override
+        long idHigh(int offset) {
+            return idHighs[offset];
+        }
+
+        @Override
+        long idLow(int offset) {
+            return idLows[offset];
+        }
+
+        @Override
+        long timestamp(int offset) {
+            return timestamps[offset];
+        }
+
+        @Override
+        double amount(int offset) {
+            return amounts[offset];
+        }
+
+        @Override
+        byte type(int offset) {
+            return types[offset];
+        }
+
+        @Override
+        int sourceAccountId(int offset) {
+            return sourceAccountIds[offset];
+        }
+
+        @Override
+        int destinationAccountId(int offset) {
+            return destinationAccountIds[offset];
+        }
+    }
+
+    private static final class OffHeapChunk extends Chunk {
+        private static final int ID_HIGH = 0;
+        private static final int ID_LOW = 8;
+        private static final int TIMESTAMP = 16;
+        private static final int AMOUNT = 24;
+        private static final int SOURCE_ACCOUNT = 32;
+        private static final int DESTINATION_ACCOUNT = 36;
+        private static final int TYPE = 40;
+
+        private final ByteBuffer records;
+
+        OffHeapChunk(HeapChunk source, ByteBuffer records) {
+            this.records = records;
+            this.legacyIds = source.legacyIds;
+            for (int offset = 0, base = 0; offset < CHUNK_SIZE; offset++, base += RECORD_BYTES) {
+                records.putLong(base + ID_HIGH, source.idHighs[offset]);
+                records.putLong(base + ID_LOW, source.idLows[offset]);
+                records.putLong(base + TIMESTAMP, source.timestamps[offset]);
+                records.putDouble(base + AMOUNT, source.amounts[offset]);
+                records.putInt(base + SOURCE_ACCOUNT, source.sourceAccountIds[offset]);
+                records.putInt(base + DESTINATION_ACCOUNT, source.destinationAccountIds[offset]);
+                records.put(base + TYPE, source.types[offset]);
+            }
+        }
+
+        @Override
+        long idHigh(int offset) {
+            return records.getLong(offset * RECORD_BYTES + ID_HIGH);
+        }
+
+        @Override
+        long idLow(int offset) {
+            return records.getLong(offset * RECORD_BYTES + ID_LOW);
+        }
+
+        @Override
+        long timestamp(int offset) {
+            return records.getLong(offset * RECORD_BYTES + TIMESTAMP);
+        }
+
+        @Override
+        double amount(int offset) {
+            return records.getDouble(offset * RECORD_BYTES + AMOUNT);
+        }
+
+        @Override
+        byte type(int offset) {
+            return records.get(offset * RECORD_BYTES + TYPE);
+        }
+
+        @Override
+        int sourceAccountId(int offset) {
+            return records.getInt(offset * RECORD_BYTES + SOURCE_ACCOUNT);
+        }
+
+        @Override
+        int destinationAccountId(int offset) {
+            return records.getInt(offset * RECORD_BYTES + DESTINATION_ACCOUNT);
+        }
+    }
+}
@@ -3,20 +3,29 @@ package utils;
 import java.util.*;
 
 import entities.Account;
+import entities.Transaction;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
 
 public class TransactionMatrix {
-    private double[][] transactionMatrix;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final LatencyHistogram RECORD_TIMER = Metrics.timer("matrix.recordTransaction");
+
+    private SparseRow[] rows;
+    private int size;
+    private CsrMatrix frozenMatrix;
     private Map<String, Integer> accountIndexMap;
     private List<Account> accounts;
 
-    public TransactionMatrix(List<Account> accounts) {
-        this.accounts = new ArrayList<>(accounts);
+    public TransactionMatrix(AccountRegistry accounts) {
+        this.accounts = new ArrayList<>(accounts.getAccounts());
         initializeMatrix();
     }
 
     private void initializeMatrix() {
-        int size = accounts.size();
-        transactionMatrix = new double[size][size];
+        size = accounts.size();
+        rows = new SparseRow[Math.max(INITIAL_CAPACITY, size)];
+        frozenMatrix = null;
         accountIndexMap = new LinkedHashMap<>();
 
         for (int i = 0; i < size; i++) {
@@ -24,78 +33,152 @@ public class TransactionMatrix {
         }
     }
 
-    public void updateAccounts(List<Account> accounts) {
-        Map<String, Integer> newAccountIndexMap = new LinkedHashMap<>();
-        int index = 0;
+    public synchronized void addAccount(Account account) {
+        if (accountIndexMap.containsKey(account.getAccountNo())) {
+            return;
+        }
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);
+        }
+        accountIndexMap.put(account.getAccountNo(), size++);
+        accounts.add(account);
+        frozenMatrix = null;
+    }
+
+    public void updateAccounts(AccountRegistry accounts) {
         for (Account account : accounts) {
-            newAccountIndexMap.put(account.getAccountNo(), index++);
+            addAccount(account);
         }
+    }
 
-        int newSize = accounts.size();
-        double[][] newTransactionMatrix = new double[newSize][newSize];
+    public void recordTransaction(String sourceAccountNo, String destinationAccountNo, double amount) {
+        long startNanos = System.nanoTime();
+        synchronized (this) {
+            Integer sourceIndex = accountIndexMap.get(sourceAccountNo);
+            Integer destinationIndex = accountIndexMap.get(destinationAccountNo);
+
+            if (sourceIndex == null || destinationIndex == null) {
+                Metrics.counter("matrix.recordTransaction.unknownAccount").increment();
+                System.out.println("One of the accounts does not exist in the transaction matrix.");
+                return;
+            }
 
-        for (Map.Entry<String, Integer> entry : accountIndexMap.entrySet()) {
-            String accountNo = entry.getKey();
-            Integer oldIndex = entry.getValue();
-            Integer newIndex = newAccountIndexMap.get(accountNo);
-
-            if (newIndex != null) {
-                for (int i = 0; i < transactionMatrix.length; i++) {
-                    if (i < newSize) {
-                        newTransactionMatrix[newIndex][i] = transactionMatrix[oldIndex][i];
-                        newTransactionMatrix[i][newIndex] = transactionMatrix[i][oldIndex];
-                    }
-                }
+            recordTransaction(sourceIndex, destinationIndex, amount);
+        }
+        RECORD_TIMER.recordSince(startNanos);
+    }
+
+    public void recordTransaction(Transaction transaction) {
+        if (transaction.getType() == TransactionType.TRANSFER) {
+            recordTransaction(transaction.getSourceAccountNo(), transaction.getDestinationAccountNo(), transaction.getAmount());
+        }
+    }
+
+    public void recordTransactions(TransactionLog.Cursor cursor) {
+        while (cursor.next()) {
+            if (cursor.getType() == TransactionType.TRANSFER) {
+                recordTransaction(cursor.getSourceAccountNo(), cursor.getDestinationAccountNo(), cursor.getAmount());
             }
         }
+    }
 
-        this.transactionMatrix = newTransactionMatrix;
-        this.accountIndexMap = newAccountIndexMap;
-        this.accounts = new ArrayList<>(accounts);
+    public synchronized void recordTransaction(int sourceIndex, int destinationIndex, double amount) {
+        if (sourceIndex < 0 || sourceIndex >= size || destinationIndex < 0 || destinationIndex >= size) {
+            throw new IndexOutOfBoundsException("Transaction matrix index out of range: [" + sourceIndex + "][" + destinationIndex + "]");
+        }
+        if (rows[sourceIndex] == null) {
+            rows[sourceIndex] = new SparseRow();
+        }
+        rows[sourceIndex].add(destinationIndex, amount);
+        frozenMatrix = null;
     }
 
-    public void recordTransaction(String sourceAccountNo, String destinationAccountNo, double amount) {
+    public synchronized double getAmount(String sourceAccountNo, String destinationAccountNo) {
         Integer sourceIndex = accountIndexMap.get(sourceAccountNo);
         Integer destinationIndex = accountIndexMap.get(destinationAccountNo);
-
         if (sourceIndex == null || destinationIndex == null) {
-            System.out.println("One of the accounts does not exist in the transaction matrix.");
-            return;
+            return 0;
         }
+        return getAmount(sourceIndex, destinationIndex);
+    }
 
-        transactionMatrix[sourceIndex][destinationIndex] += amount;
+    public synchronized double getAmount(int sourceIndex, int destinationIndex) {
+        if (sourceIndex < 0 || sourceIndex >= size || rows[sourceIndex] == null) {
+            return 0;
+        }
+        return rows[sourceIndex].get(destinationIndex);
+    }
+
+    public synchronized CsrMatrix getCsrMatrix() {
+        if (frozenMatrix == null) {
+            frozenMatrix = CsrMatrix.fromRows(rows, size);
+        }
+        return frozenMatrix;
+    }
+
+    public TransferGraph getTransferGraph() {
+        CsrMatrix matrix;
+        String[] accountNumbers;
+        synchronized (this) {
+            matrix = getCsrMatrix();
+            accountNumbers = getAccountNumbersByIndex();
+        }
+        return new TransferGraph(matrix, accountNumbers);
+    }
+
+    public synchronized int getSize() {
+        return size;
     }
 
     public void displayTransactionMatrix() {
+        CsrMatrix matrix = getCsrMatrix();
+        String[] accountNumbers = getAccountNumbersByIndex();
         System.out.println("\nTransaction Matrix:");
         System.out.print("\t");
-        for (Account acc : accounts) {
-            System.out.print(acc.getAccountNo() + "\t");
+        for (String accountNo : accountNumbers) {
+            System.out.print(accountNo + "\t");
         }
         System.out.println();
-        for (int i = 0; i < accounts.size(); i++) {
-            System.out.print(accounts.get(i).getAccountNo() + "\t");
-            for (int j = 0; j < accounts.size(); j++) {
-                System.out.print(transactionMatrix[i][j] + "\t");
+        for (int i = 0; i < accountNumbers.length; i++) {
+            System.out.print(accountNumbers[i] + "\t");
+            for (int j = 0; j < accountNumbers.length; j++) {
+                System.out.print(matrix.get(i, j) + "\t");
             }
             System.out.println();
         }
     }
 
-    public double[][] getTransactionMatrix() {
-        return transactionMatrix;
+    public synchronized double[][] getTransactionMatrix() {
+        double[][] denseMatrix = new double[size][size];
+        CsrMatrix matrix = getCsrMatrix();
+        for (int i = 0; i < size; i++) {
+            for (int k = matrix.getRowStart(i); k < matrix.getRowEnd(i); k++) {
+                denseMatrix[i][matrix.getColumn(k)] = matrix.getValue(k);
+            }
+        }
+        return denseMatrix;
     }
 
-    public void setTransactionMatrix(double[][] transactionMatrix) {
-        this.transactionMatrix = transactionMatrix;
+    public synchronized void setTransactionMatrix(double[][] transactionMatrix) {
+        clearRows();
+        for (int i = 0; i < transactionMatrix.length && i < size; i++) {
+            for (int j = 0; j < transactionMatrix[i].length && j < size; j++) {
+                if (transactionMatrix[i][j] != 0) {
+                    recordTransaction(i, j, transactionMatrix[i][j]);
+                }
+            }
+        }
     }
 
     public Map<String, Integer> getAccountIndexMap() {
         return accountIndexMap;
     }
 
-    public void setAccountIndexMap(Map<String, Integer> accountIndexMap) {
-        this.accountIndexMap = accountIndexMap;
+    public synchronized void setAccountIndexMap(Map<String, Integer> accountIndexMap) {
+        this.accountIndexMap = new LinkedHashMap<>(accountIndexMap);
+        this.size = accountIndexMap.size();
+        this.rows = new SparseRow[Math.max(INITIAL_CAPACITY, size)];
+        this.frozenMatrix = null;
     }
 
     public List<Account> getAccounts() {
@@ -105,27 +188,35 @@ public class TransactionMatrix {
     public void setAccounts(List<Account> accounts) {
         this.accounts = accounts;
     }
-    
-    public void rebuildAccountsList(List<Account> allAccounts) {
-        this.accounts = new ArrayList<>();
-        for (String accountNo : accountIndexMap.keySet()) {
-            Account account = findAccountByNumber(accountNo, allAccounts);
+
+    public synchronized void rebuildAccountsList(AccountRegistry allAccounts) {
+        Account[] orderedAccounts = new Account[size];
+        for (Map.Entry<String, Integer> entry : accountIndexMap.entrySet()) {
+            Account account = allAccounts.findAccountByNumber(entry.getKey());
             if (account != null) {
-                accounts.add(account);
+                orderedAccounts[entry.getValue()] = account;
             } else {
-                System.out.println("Account " + accountNo + " not found in account list.");
+                System.out.println("Account " + entry.getKey() + " not found in account list.");
             }
         }
-    }
-    
-    private Account findAccountByNumber(String accountNo, List<Account> accountList) {
-        for (Account account : accountList) {
-            if (account.getAccountNo().equals(accountNo)) {
-                return account;
+        this.accounts = new ArrayList<>();
+        for (Account account : orderedAccounts) {
+            if (account != null) {
+                accounts.add(account);
             }
         }
-        return null;
     }
 
+    public synchronized String[] getAccountNumbersByIndex() {
+        String[] accountNumbers = new String[size];
+        for (Map.Entry<String, Integer> entry : accountIndexMap.entrySet()) {
+            accountNumbers[entry.getValue()] = entry.getKey();
+        }
+        return accountNumbers;
+    }
 
+    private void clearRows() {
+        Arrays.fill(rows, null);
+        frozenMatrix = null;
+    }
 }
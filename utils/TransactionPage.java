@@ -0,0 +1,37 @@
+package utils;
+
+import java.util.List;
+
+import entities.Transaction;
+
+public class TransactionPage {
+    private final List<Transaction> transactions;
+    private final int offset;
+    private final int totalCount;
+
+    public TransactionPage(List<Transaction> transactions, int offset, int totalCount) {
+        this.transactions = transactions;
+        this.offset = offset;
+        this.totalCount = totalCount;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getNextOffset() {
+        return offset + transactions.size();
+    }
+
+    public boolean hasNextPage() {
+        return getNextOffset() < totalCount;
+    }
+}
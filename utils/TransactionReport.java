@@ -0,0 +1,160 @@
+package utils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.SortedMap;
+
+public class TransactionReport {
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final int transactionCount;
+    private final long elapsedNanos;
+    private final SortedMap<LocalDate, PeriodVolume> dailyVolumes;
+    private final SortedMap<YearMonth, PeriodVolume> monthlyVolumes;
+    private final List<OwnerTotals> ownerTotals;
+    private final List<AccountTotals> topInflows;
+    private final List<AccountTotals> topOutflows;
+    private final List<AccountTotals> accountTotals;
+
+    TransactionReport(int transactionCount, long elapsedNanos, SortedMap<LocalDate, PeriodVolume> dailyVolumes,
+            SortedMap<YearMonth, PeriodVolume> monthlyVolumes, List<OwnerTotals> ownerTotals, List<AccountTotals> topInflows,
+            List<AccountTotals> topOutflows, List<AccountTotals> accountTotals) {
+        this.transactionCount = transactionCount;
+        this.elapsedNanos = elapsedNanos;
+        this.dailyVolumes = dailyVolumes;
+        this.monthlyVolumes = monthlyVolumes;
+        this.ownerTotals = ownerTotals;
+        this.topInflows = topInflows;
+        this.topOutflows = topOutflows;
+        this.accountTotals = accountTotals;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public SortedMap<LocalDate, PeriodVolume> getDailyVolumes() {
+        return dailyVolumes;
+    }
+
+    public SortedMap<YearMonth, PeriodVolume> getMonthlyVolumes() {
+        return monthlyVolumes;
+    }
+
+    public List<OwnerTotals> getOwnerTotals() {
+        return ownerTotals;
+    }
+
+    public List<AccountTotals> getTopInflows() {
+        return topInflows;
+    }
+
+    public List<AccountTotals> getTopOutflows() {
+        return topOutflows;
+    }
+
+    public List<AccountTotals> getAccountTotals() {
+        return accountTotals;
+    }
+
+    public static class PeriodVolume {
+        private final long[] counts = new long[TYPES.length];
+        private final double[] amounts = new double[TYPES.length];
+
+        void add(int type, double amount) {
+            counts[type]++;
+            amounts[type] += amount;
+        }
+
+        void merge(PeriodVolume other) {
+            for (int type = 0; type < TYPES.length; type++) {
+                counts[type] += other.counts[type];
+                amounts[type] += other.amounts[type];
+            }
+        }
+
+        public long getCount(TransactionType type) {
+            return counts[type.ordinal()];
+        }
+
+        public double getAmount(TransactionType type) {
+            return amounts[type.ordinal()];
+        }
+    }
+
+    public static class AccountTotals {
+        private final String accountNo;
+        private final String owner;
+        private final double inflow;
+        private final double outflow;
+
+        AccountTotals(String accountNo, String owner, double inflow, double outflow) {
+            this.accountNo = accountNo;
+            this.owner = owner;
+            this.inflow = inflow;
+            this.outflow = outflow;
+        }
+
+        public String getAccountNo() {
+            return accountNo;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public double getInflow() {
+            return inflow;
+        }
+
+        public double getOutflow() {
+            return outflow;
+        }
+
+        public double getNetMovement() {
+            return inflow - outflow;
+        }
+    }
+
+    public static class OwnerTotals {
+        private final String owner;
+        private int accountCount;
+        private double inflow;
+        private double outflow;
+
+        OwnerTotals(String owner) {
+            this.owner = owner;
+        }
+
+        void add(AccountTotals account) {
+            accountCount++;
+            inflow += account.getInflow();
+            outflow += account.getOutflow();
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public int getAccountCount() {
+            return accountCount;
+        }
+
+        public double getInflow() {
+            return inflow;
+        }
+
+        public double getOutflow() {
+            return outflow;
+        }
+
+        public double getNetMovement() {
+            return inflow - outflow;
+        }
+    }
+}
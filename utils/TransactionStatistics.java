@@ -1,76 +1,187 @@
 package utils;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import entities.Transaction;
+
 public class TransactionStatistics {
     private double[] transactionAmounts;
+    private final boolean retainAmounts;
     private int transactionCount;
+    private double sum;
+    private double sumCompensation;
+    private double minAmount = Double.POSITIVE_INFINITY;
+    private double maxAmount = Double.NEGATIVE_INFINITY;
+    private double mean;
+    private double squaredDeviations;
+    private final QuantileSketch quantileSketch = new QuantileSketch();
     
     public TransactionStatistics(int maxTransactions) {
+        this(maxTransactions, true);
+    }
+
+    public TransactionStatistics(int maxTransactions, boolean retainAmounts) {
     	if (maxTransactions <= 0) {
             maxTransactions = 10;
         }
-        transactionAmounts = new double[maxTransactions];
+        this.retainAmounts = retainAmounts;
+        transactionAmounts = retainAmounts ? new double[maxTransactions] : new double[0];
         transactionCount = 0;
     }
-    
-    public void setTransactionAmounts(double[] transactionAmounts) {
-		this.transactionAmounts = transactionAmounts;
+
+	public synchronized double[] getTransactionAmounts() {
+		return transactionAmounts;
 	}
 
-	public void setTransactionCount(int transactionCount) {
-		this.transactionCount = transactionCount;
+	public boolean isRetainingAmounts() {
+		return retainAmounts;
 	}
 
-	public double[] getTransactionAmounts() {
-		return transactionAmounts;
+	public synchronized void addTransactionAmount(double amount) {
+	    if (retainAmounts) {
+	        if (transactionCount >= transactionAmounts.length) {
+	            int newSize = (transactionAmounts.length == 0) ? 10 : transactionAmounts.length * 2;
+	            double[] newTransactionAmounts = new double[newSize];
+	            System.arraycopy(transactionAmounts, 0, newTransactionAmounts, 0, transactionAmounts.length);
+	            transactionAmounts = newTransactionAmounts;
+	        }
+	        transactionAmounts[transactionCount] = amount;
+	    }
+	    transactionCount++;
+
+	    double total = sum + amount;
+	    if (Math.abs(sum) >= Math.abs(amount)) {
+	        sumCompensation += (sum - total) + amount;
+	    } else {
+	        sumCompensation += (amount - total) + sum;
+	    }
+	    sum = total;
+
+	    minAmount = Math.min(minAmount, amount);
+	    maxAmount = Math.max(maxAmount, amount);
+
+	    double delta = amount - mean;
+	    mean += delta / transactionCount;
+	    squaredDeviations += delta * (amount - mean);
+
+	    quantileSketch.add(amount);
 	}
 
-	public void addTransactionAmount(double amount) {
-	    if (transactionCount >= transactionAmounts.length) {
-	        int newSize = (transactionAmounts.length == 0) ? 10 : transactionAmounts.length * 2;
-	        double[] newTransactionAmounts = new double[newSize];
-	        System.arraycopy(transactionAmounts, 0, newTransactionAmounts, 0, transactionAmounts.length);
-	        transactionAmounts = newTransactionAmounts;
+	public synchronized void addTransaction(Transaction transaction) {
+	    addTransactionAmount(transaction.getAmount());
+	}
+
+	public synchronized void addTransactions(TransactionLog.Cursor cursor) {
+	    while (cursor.next()) {
+	        addTransactionAmount(cursor.getAmount());
 	    }
-	    transactionAmounts[transactionCount++] = amount;
 	}
 
+	public synchronized void merge(TransactionStatistics other) {
+	    if (other == this) {
+	        throw new IllegalArgumentException("Cannot merge statistics with themselves.");
+	    }
+	    synchronized (other) {
+	        if (other.transactionCount == 0) {
+	            return;
+	        }
+	        if (retainAmounts) {
+	            if (!other.retainAmounts) {
+	                throw new IllegalArgumentException("Cannot merge statistics without raw amounts into statistics that retain them.");
+	            }
+	            int required = transactionCount + other.transactionCount;
+	            if (required > transactionAmounts.length) {
+	                double[] newTransactionAmounts = new double[Math.max(required, transactionAmounts.length * 2)];
+	                System.arraycopy(transactionAmounts, 0, newTransactionAmounts, 0, transactionCount);
+	                transactionAmounts = newTransactionAmounts;
+	            }
+	            System.arraycopy(other.transactionAmounts, 0, transactionAmounts, transactionCount, other.transactionCount);
+	        }
+	        int combinedCount = transactionCount + other.transactionCount;
+	        double delta = other.mean - mean;
+	        squaredDeviations += other.squaredDeviations + delta * delta * transactionCount * other.transactionCount / combinedCount;
+	        mean += delta * other.transactionCount / combinedCount;
+	        transactionCount = combinedCount;
+
+	        double total = sum + other.sum;
+	        if (Math.abs(sum) >= Math.abs(other.sum)) {
+	            sumCompensation += (sum - total) + other.sum;
+	        } else {
+	            sumCompensation += (other.sum - total) + sum;
+	        }
+	        sum = total;
+	        sumCompensation += other.sumCompensation;
+
+	        minAmount = Math.min(minAmount, other.minAmount);
+	        maxAmount = Math.max(maxAmount, other.maxAmount);
+	        quantileSketch.merge(other.quantileSketch);
+	    }
+	}
     
-    public double getTotalAmount() {
-        double total = 0;
-        for (int i = 0; i < transactionCount; i++) {
-            total += transactionAmounts[i];
-        }
-        return total;
+	synchronized void writeState(DataOutputStream output) throws IOException {
+	    output.writeInt(transactionCount);
+	    output.writeDouble(sum);
+	    output.writeDouble(sumCompensation);
+	    output.writeDouble(minAmount);
+	    output.writeDouble(maxAmount);
+	    output.writeDouble(mean);
+	    output.writeDouble(squaredDeviations);
+	    quantileSketch.writeState(output);
+	}
+
+	static TransactionStatistics readState(DataInputStream input) throws IOException {
+	    TransactionStatistics statistics = new TransactionStatistics(0, false);
+	    statistics.transactionCount = input.readInt();
+	    if (statistics.transactionCount < 0) {
+	        throw new IOException("Statistics cover a negative number of transactions.");
+	    }
+	    statistics.sum = input.readDouble();
+	    statistics.sumCompensation = input.readDouble();
+	    statistics.minAmount = input.readDouble();
+	    statistics.maxAmount = input.readDouble();
+	    statistics.mean = input.readDouble();
+	    statistics.squaredDeviations = input.readDouble();
+	    statistics.quantileSketch.merge(QuantileSketch.readState(input));
+	    return statistics;
+	}
+
+    public synchronized double getTotalAmount() {
+        return sum + sumCompensation;
     }
     
-    public double getAverageAmount() {
+    public synchronized double getAverageAmount() {
         if (transactionCount == 0) return 0;
-        return getTotalAmount() / transactionCount;
+        return mean;
     }
     
-    public double getMaxAmount() {
+    public synchronized double getMaxAmount() {
         if (transactionCount == 0) return 0;
-        double max = transactionAmounts[0];
-        for (int i = 1; i < transactionCount; i++) {
-            if (transactionAmounts[i] > max) {
-                max = transactionAmounts[i];
-            }
-        }
-        return max;
+        return maxAmount;
     }
     
-    public double getMinAmount() {
+    public synchronized double getMinAmount() {
         if (transactionCount == 0) return 0;
-        double min = transactionAmounts[0];
-        for (int i = 1; i < transactionCount; i++) {
-            if (transactionAmounts[i] < min) {
-                min = transactionAmounts[i];
-            }
-        }
-        return min;
+        return minAmount;
+    }
+
+    public synchronized double getVariance() {
+        if (transactionCount < 2) return 0;
+        return squaredDeviations / (transactionCount - 1);
+    }
+
+    public synchronized double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public synchronized double getPercentile(double percentile) {
+        if (transactionCount == 0) return 0;
+        double estimate = quantileSketch.getQuantile(percentile / 100);
+        return Math.max(minAmount, Math.min(maxAmount, estimate));
     }
     
-    public int getTransactionCount() {
+    public synchronized int getTransactionCount() {
         return transactionCount;
     }
     
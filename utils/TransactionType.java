@@ -3,5 +3,6 @@ package utils;
 public enum TransactionType {
     DEPOSIT,
     WITHDRAWAL,
-    TRANSFER
+    TRANSFER,
+    INTEREST
 }
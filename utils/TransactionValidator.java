@@ -0,0 +1,175 @@
+package utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+import entities.Transaction;
+import entities.TransactionId;
+import exceptions.InvalidTransactionDataException;
+
+class TransactionValidator {
+    private static final int CHUNK_SIZE = 8192;
+    private static final int SPLIT_THRESHOLD = 1024;
+
+    private final AccountRegistry accounts;
+    private final Consumer<Transaction> consumer;
+    private final ForkJoinPool pool;
+    private final int maxPendingChunks;
+    private final ConcurrentHashMap<TransactionId, Long> firstPositions = new ConcurrentHashMap<>();
+    private final ArrayDeque<Chunk> pending = new ArrayDeque<>();
+    private List<Transaction> current = new ArrayList<>(CHUNK_SIZE);
+    private long submitted;
+    private long accepted;
+
+    TransactionValidator(AccountRegistry accounts, Consumer<Transaction> consumer) {
+        this.accounts = accounts;
+        this.consumer = consumer;
+        this.pool = ForkJoinPool.commonPool();
+        this.maxPendingChunks = 2 * pool.getParallelism() + 1;
+    }
+
+    void submit(Transaction transaction) {
+        current.add(transaction);
+        submitted++;
+        if (current.size() == CHUNK_SIZE) {
+            dispatch();
+        }
+    }
+
+    void finish() {
+        if (!current.isEmpty()) {
+            dispatch();
+        }
+        while (!pending.isEmpty()) {
+            emit(pending.removeFirst());
+        }
+    }
+
+    long getAccepted() {
+        return accepted;
+    }
+
+    private void dispatch() {
+        Chunk chunk = new Chunk(current, submitted - current.size());
+        current = new ArrayList<>(CHUNK_SIZE);
+        if (Runtime.getRuntime().availableProcessors() > 1) {
+            pool.execute(chunk);
+        } else {
+            chunk.invoke();
+        }
+        pending.addLast(chunk);
+        if (pending.size() >= maxPendingChunks) {
+            emit(pending.removeFirst());
+        }
+    }
+
+    private void emit(Chunk chunk) {
+        chunk.join();
+        for (int i = 0; i < chunk.transactions.size(); i++) {
+            Transaction transaction = chunk.transactions.get(i);
+            String error = chunk.errors[i];
+            TransactionId transactionId = chunk.transactionIds[i];
+            Long earliest = transactionId == null ? null : firstPositions.get(transactionId);
+            if (earliest != null && earliest != chunk.firstPosition + i) {
+                error = "Duplicate transaction ID found: " + transaction.getTransactionId();
+            }
+            if (error != null) {
+                System.out.println("Warning: " + error);
+                continue;
+            }
+            consumer.accept(transaction);
+            accepted++;
+        }
+    }
+
+    private class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Transaction> transactions;
+        private final long firstPosition;
+        private final TransactionId[] transactionIds;
+        private final String[] errors;
+        private final int from;
+        private final int to;
+
+        Chunk(List<Transaction> transactions, long firstPosition) {
+            this(transactions, firstPosition, new TransactionId[transactions.size()], new String[transactions.size()], 0, transactions.size());
+        }
+
+        private Chunk(List<Transaction> transactions, long firstPosition, TransactionId[] transactionIds, String[] errors, int from, int to) {
+            this.transactions = transactions;
+            this.firstPosition = firstPosition;
+            this.transactionIds = transactionIds;
+            this.errors = errors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Chunk(transactions, firstPosition, transactionIds, errors, from, middle),
+                        new Chunk(transactions, firstPosition, transactionIds, errors, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                Transaction transaction = transactions.get(i);
+                TransactionId transactionId = transaction.getId();
+                if (transactionId == null || transactionId.isLegacy() && transactionId.getLegacyId().trim().isEmpty()) {
+                    errors[i] = "Transaction ID is missing or empty.";
+                    continue;
+                }
+                transactionIds[i] = transactionId;
+                long position = firstPosition + i;
+                if (firstPositions.merge(transactionId, position, Math::min) != position) {
+                    continue;
+                }
+                try {
+                    validateFields(transaction, accounts);
+                } catch (InvalidTransactionDataException e) {
+                    errors[i] = e.getMessage();
+                }
+            }
+        }
+    }
+
+    static void validateFields(Transaction transaction, AccountRegistry accounts) throws InvalidTransactionDataException {
+        if (transaction.getAmount() <= 0) {
+            throw new InvalidTransactionDataException("Transaction amount must be positive for transaction ID " + transaction.getTransactionId());
+        }
+        if (transaction.getDate() == null) {
+            throw new InvalidTransactionDataException("Transaction date is missing for transaction ID " + transaction.getTransactionId());
+        }
+        if (transaction.getType() == null) {
+            throw new InvalidTransactionDataException("Transaction type is missing for transaction ID " + transaction.getTransactionId());
+        }
+        if (!isValidTransactionType(transaction.getType())) {
+            throw new InvalidTransactionDataException("Invalid transaction type '" + transaction.getType() + "' for transaction ID " + transaction.getTransactionId());
+        }
+        if (transaction.getSourceAccountNo() == null || transaction.getSourceAccountNo().trim().isEmpty()) {
+            throw new InvalidTransactionDataException("Source account number is missing for transaction ID " + transaction.getTransactionId());
+        }
+        if (!accounts.accountExists(transaction.getSourceAccountNo())) {
+            throw new InvalidTransactionDataException("Source account " + transaction.getSourceAccountNo() + " does not exist for transaction ID " + transaction.getTransactionId());
+        }
+        if (transaction.getType() == TransactionType.TRANSFER) {
+            if (transaction.getDestinationAccountNo() == null || transaction.getDestinationAccountNo().trim().isEmpty()) {
+                throw new InvalidTransactionDataException("Destination account number is missing for transfer transaction ID " + transaction.getTransactionId());
+            }
+            if (!accounts.accountExists(transaction.getDestinationAccountNo())) {
+                throw new InvalidTransactionDataException("Destination account " + transaction.getDestinationAccountNo() + " does not exist for transaction ID " + transaction.getTransactionId());
+            }
+        }
+    }
+
+    static boolean isValidTransactionType(TransactionType type) {
+        return type == TransactionType.DEPOSIT || type == TransactionType.WITHDRAWAL || type == TransactionType.TRANSFER
+                || type == TransactionType.INTEREST;
+    }
+}
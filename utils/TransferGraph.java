@@ -0,0 +1,360 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+public class TransferGraph {
+    private static final int MIN_SLICE_SIZE = 1 << 12;
+    private static final int SLICES_PER_THREAD = 4;
+    private static final Comparator<TransferCycle> BY_AMOUNT = Comparator.comparingDouble(TransferCycle::getAmount);
+
+    private final CsrMatrix outgoing;
+    private final CsrMatrix incoming;
+    private final String[] accountNumbers;
+    private final double[] outflows;
+    private final double[] inflows;
+    private final ForkJoinPool pool;
+
+    public TransferGraph(CsrMatrix outgoing, String[] accountNumbers) {
+        this(outgoing, accountNumbers, ForkJoinPool.commonPool());
+    }
+
+    public TransferGraph(CsrMatrix outgoing, String[] accountNumbers, ForkJoinPool pool) {
+        if (accountNumbers.length < outgoing.getSize()) {
+            throw new IllegalArgumentException("Every account in the transfer graph needs an account number.");
+        }
+        this.outgoing = outgoing;
+        this.incoming = outgoing.transpose();
+        this.accountNumbers = accountNumbers;
+        this.pool = pool;
+        int size = outgoing.getSize();
+        this.outflows = new double[size];
+        this.inflows = new double[size];
+        IntStream.range(0, size).parallel().forEach(account -> {
+            outflows[account] = rowSum(outgoing, account);
+            inflows[account] = rowSum(incoming, account);
+        });
+    }
+
+    public int getAccountCount() {
+        return outgoing.getSize();
+    }
+
+    public int getEdgeCount() {
+        return outgoing.getNonZeroCount();
+    }
+
+    public String getAccountNo(int account) {
+        return accountNumbers[account];
+    }
+
+    public int indexOf(String accountNo) {
+        for (int account = 0; account < getAccountCount(); account++) {
+            if (accountNumbers[account].equals(accountNo)) {
+                return account;
+            }
+        }
+        return -1;
+    }
+
+    public double getOutflow(int account) {
+        return outflows[account];
+    }
+
+    public double getInflow(int account) {
+        return inflows[account];
+    }
+
+    public double getNetFlow(int account) {
+        return inflows[account] - outflows[account];
+    }
+
+    public int[] getLargestNetReceivers(int count) {
+        return topAccounts(count, true);
+    }
+
+    public int[] getLargestNetSenders(int count) {
+        return topAccounts(count, false);
+    }
+
+    public List<Counterparty> getTopCounterparties(String accountNo, int count) {
+        int account = indexOf(accountNo);
+        if (account < 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Counterparty> top = new PriorityQueue<>(Comparator.comparingDouble(Counterparty::getTotal));
+        int out = outgoing.getRowStart(account);
+        int outEnd = outgoing.getRowEnd(account);
+        int in = incoming.getRowStart(account);
+        int inEnd = incoming.getRowEnd(account);
+        while (out < outEnd || in < inEnd) {
+            int outColumn = out < outEnd ? outgoing.getColumn(out) : Integer.MAX_VALUE;
+            int inColumn = in < inEnd ? incoming.getColumn(in) : Integer.MAX_VALUE;
+            int counterparty = Math.min(outColumn, inColumn);
+            double sent = outColumn == counterparty ? outgoing.getValue(out++) : 0;
+            double received = inColumn == counterparty ? incoming.getValue(in++) : 0;
+            top.add(new Counterparty(accountNumbers[counterparty], sent, received));
+            if (top.size() > count) {
+                top.poll();
+            }
+        }
+        List<Counterparty> counterparties = new ArrayList<>(top);
+        counterparties.sort(Comparator.comparingDouble(Counterparty::getTotal).reversed());
+        return counterparties;
+    }
+
+    public List<List<String>> findStronglyConnectedComponents(int minSize) {
+        int size = getAccountCount();
+        int[] indexes = new int[size];
+        int[] lowLinks = new int[size];
+        boolean[] onStack = new boolean[size];
+        int[] stack = new int[size];
+        int[] callStack = new int[size];
+        int[] nextEdges = new int[size];
+        Arrays.fill(indexes, -1);
+        List<List<String>> components = new ArrayList<>();
+        int counter = 0;
+        int stackSize = 0;
+        for (int root = 0; root < size; root++) {
+            if (indexes[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[0] = root;
+            nextEdges[0] = outgoing.getRowStart(root);
+            indexes[root] = lowLinks[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            while (depth >= 0) {
+                int account = callStack[depth];
+                if (nextEdges[depth] < outgoing.getRowEnd(account)) {
+                    int target = outgoing.getColumn(nextEdges[depth]++);
+                    if (indexes[target] < 0) {
+                        depth++;
+                        callStack[depth] = target;
+                        nextEdges[depth] = outgoing.getRowStart(target);
+                        indexes[target] = lowLinks[target] = counter++;
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                    } else if (onStack[target]) {
+                        lowLinks[account] = Math.min(lowLinks[account], indexes[target]);
+                    }
+                    continue;
+                }
+                if (lowLinks[account] == indexes[account]) {
+                    int start = stackSize;
+                    do {
+                        start--;
+                        onStack[stack[start]] = false;
+                    } while (stack[start] != account);
+                    if (stackSize - start >= minSize) {
+                        List<String> component = new ArrayList<>(stackSize - start);
+                        for (int k = start; k < stackSize; k++) {
+                            component.add(accountNumbers[stack[k]]);
+                        }
+                        components.add(component);
+                    }
+                    stackSize = start;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callStack[depth];
+                    lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[account]);
+                }
+            }
+        }
+        components.sort(Comparator.comparingInt((List<String> component) -> component.size()).reversed());
+        return components;
+    }
+
+    public TransferCycles findTransferCycles(int limit) {
+        int size = getAccountCount();
+        int sliceSize = Math.max(MIN_SLICE_SIZE, size / (pool.getParallelism() * SLICES_PER_THREAD) + 1);
+        return pool.invoke(new CycleTask(0, size, sliceSize, limit));
+    }
+
+    private int[] topAccounts(int count, boolean receivers) {
+        int[] accounts = new int[Math.min(count, getAccountCount())];
+        int size = 0;
+        for (int account = 0; account < getAccountCount(); account++) {
+            double score = receivers ? getNetFlow(account) : -getNetFlow(account);
+            if (score <= 0 || size == accounts.length && (size == 0 || score <= scoreOf(accounts[size - 1], receivers))) {
+                continue;
+            }
+            int position = size == accounts.length ? size - 1 : size++;
+            while (position > 0 && scoreOf(accounts[position - 1], receivers) < score) {
+                accounts[position] = accounts[position - 1];
+                position--;
+            }
+            accounts[position] = account;
+        }
+        return Arrays.copyOf(accounts, size);
+    }
+
+    private double scoreOf(int account, boolean receivers) {
+        return receivers ? getNetFlow(account) : -getNetFlow(account);
+    }
+
+    private static double rowSum(CsrMatrix matrix, int row) {
+        double sum = 0;
+        for (int k = matrix.getRowStart(row); k < matrix.getRowEnd(row); k++) {
+            sum += matrix.getValue(k);
+        }
+        return sum;
+    }
+
+    private final class CycleTask extends RecursiveTask<TransferCycles> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int sliceSize;
+        private final int limit;
+
+        CycleTask(int from, int to, int sliceSize, int limit) {
+            this.from = from;
+            this.to = to;
+            this.sliceSize = sliceSize;
+            this.limit = limit;
+        }
+
+        @Override
+        protected TransferCycles compute() {
+            if (to - from > sliceSize) {
+                int middle = (from + to) >>> 1;
+                CycleTask right = new CycleTask(middle, to, sliceSize, limit);
+                right.fork();
+                TransferCycles left = new CycleTask(from, middle, sliceSize, limit).compute();
+                return left.merge(right.join());
+            }
+            TransferCycles cycles = new TransferCycles(limit);
+            int[] marks = new int[getAccountCount()];
+            double[] closingAmounts = new double[getAccountCount()];
+            for (int first = from; first < to; first++) {
+                int stamp = first + 1;
+                for (int k = incoming.getRowStart(first); k < incoming.getRowEnd(first); k++) {
+                    int last = incoming.getColumn(k);
+                    if (last > first) {
+                        marks[last] = stamp;
+                        closingAmounts[last] = incoming.getValue(k);
+                    }
+                }
+                for (int k = outgoing.getRowStart(first); k < outgoing.getRowEnd(first); k++) {
+                    int second = outgoing.getColumn(k);
+                    if (second <= first) {
+                        continue;
+                    }
+                    double firstAmount = outgoing.getValue(k);
+                    for (int j = outgoing.getRowStart(second); j < outgoing.getRowEnd(second); j++) {
+                        int third = outgoing.getColumn(j);
+                        if (third > first && third != second && marks[third] == stamp) {
+                            double amount = Math.min(firstAmount, Math.min(outgoing.getValue(j), closingAmounts[third]));
+                            cycles.offer(first, second, third, amount);
+                        }
+                    }
+                }
+            }
+            return cycles;
+        }
+    }
+
+    public final class TransferCycles {
+        private final int limit;
+        private final PriorityQueue<TransferCycle> top = new PriorityQueue<>(BY_AMOUNT);
+        private long count;
+
+        private TransferCycles(int limit) {
+            this.limit = limit;
+        }
+
+        private void offer(int first, int second, int third, double amount) {
+            count++;
+            if (limit <= 0 || top.size() == limit && top.peek().getAmount() >= amount) {
+                return;
+            }
+            top.add(new TransferCycle(new String[] { accountNumbers[first], accountNumbers[second], accountNumbers[third] }, amount));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        private TransferCycles merge(TransferCycles other) {
+            count += other.count;
+            for (TransferCycle cycle : other.top) {
+                top.add(cycle);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            return this;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public List<TransferCycle> getLargestCycles() {
+            List<TransferCycle> cycles = new ArrayList<>(top);
+            cycles.sort(Collections.reverseOrder(BY_AMOUNT));
+            return cycles;
+        }
+    }
+
+    public static class TransferCycle {
+        private final String[] accountNos;
+        private final double amount;
+
+        TransferCycle(String[] accountNos, double amount) {
+            this.accountNos = accountNos;
+            this.amount = amount;
+        }
+
+        public String[] getAccountNos() {
+            return accountNos.clone();
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        @Override
+        public String toString() {
+            return String.join(" -> ", accountNos) + " -> " + accountNos[0];
+        }
+    }
+
+    public static class Counterparty {
+        private final String accountNo;
+        private final double sent;
+        private final double received;
+
+        Counterparty(String accountNo, double sent, double received) {
+            this.accountNo = accountNo;
+            this.sent = sent;
+            this.received = received;
+        }
+
+        public String getAccountNo() {
+            return accountNo;
+        }
+
+        public double getSent() {
+            return sent;
+        }
+
+        public double getReceived() {
+            return received;
+        }
+
+        public double getTotal() {
+            return sent + received;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package utils;
+
+import entities.TransactionId;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+
+import metrics.Metrics;
+
+public class ViewCheckpoint {
+    private static final int MAGIC = 0x45424E56;
+    private static final int END_MAGIC = 0x454E4421;
+    private static final short VERSION = 1;
+
+    private final int position;
+    private final TransactionId lastTransactionId;
+    private final TransactionStatistics statistics;
+    private final String[] accountNumbers;
+    private final CsrMatrix matrix;
+
+    private ViewCheckpoint(int position, TransactionId lastTransactionId, TransactionStatistics statistics, String[] accountNumbers, CsrMatrix matrix) {
+        this.position = position;
+        this.lastTransactionId = lastTransactionId;
+        this.statistics = statistics;
+        this.accountNumbers = accountNumbers;
+        this.matrix = matrix;
+    }
+
+    public static ViewCheckpoint empty() {
+        return new ViewCheckpoint(0, null, new TransactionStatistics(0, false), new String[0], new CsrMatrix(0, new int[1], new int[0], new double[0]));
+    }
+
+    public static ViewCheckpoint capture(TransactionLog log, TransactionStatistics statistics, TransactionMatrix matrix) {
+        int position = log.size();
+        if (statistics.getTransactionCount() != position) {
+            throw new IllegalStateException("Statistics cover " + statistics.getTransactionCount() + " transactions but the log holds " + position + ".");
+        }
+        TransactionStatistics aggregates = new TransactionStatistics(0, false);
+        aggregates.merge(statistics);
+        CsrMatrix frozenMatrix;
+        String[] accountNumbers;
+        synchronized (matrix) {
+            frozenMatrix = matrix.getCsrMatrix();
+            accountNumbers = matrix.getAccountNumbersByIndex();
+        }
+        return new ViewCheckpoint(position, transactionIdAt(log, position), aggregates, accountNumbers, frozenMatrix);
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public TransactionStatistics getStatistics() {
+        TransactionStatistics copy = new TransactionStatistics(0, false);
+        copy.merge(statistics);
+        return copy;
+    }
+
+    public TransactionMatrix getMatrix(AccountRegistry accounts) {
+        TransactionMatrix restored = new TransactionMatrix(accounts);
+        Map<String, Integer> accountIndexMap = restored.getAccountIndexMap();
+        int[] indexes = new int[accountNumbers.length];
+        for (int i = 0; i < accountNumbers.length; i++) {
+            Integer index = accountIndexMap.get(accountNumbers[i]);
+            indexes[i] = index == null ? -1 : index;
+        }
+        for (int i = 0; i < matrix.getSize(); i++) {
+            for (int k = matrix.getRowStart(i); k < matrix.getRowEnd(i); k++) {
+                int j = matrix.getColumn(k);
+                if (indexes[i] < 0 || indexes[j] < 0) {
+                    System.out.println("Warning: Account " + accountNumbers[indexes[i] < 0 ? i : j] + " in the view checkpoint does not exist in the transaction matrix.");
+                    continue;
+                }
+                restored.recordTransaction(indexes[i], indexes[j], matrix.getValue(k));
+            }
+        }
+        return restored;
+    }
+
+    public void write(String filename) throws IOException {
+        long startNanos = System.nanoTime();
+        Path target = Paths.get(filename);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            output.writeInt(MAGIC);
+            output.writeShort(VERSION);
+            output.writeInt(position);
+            output.writeLong(lastTransactionId == null ? 0 : lastTransactionId.getHigh());
+            output.writeLong(lastTransactionId == null ? 0 : lastTransactionId.getLow());
+            writeString(output, lastTransactionId == null ? null : lastTransactionId.getLegacyId());
+            statistics.writeState(output);
+            output.writeInt(accountNumbers.length);
+            for (String accountNo : accountNumbers) {
+                writeString(output, accountNo);
+            }
+            output.writeInt(matrix.getNonZeroCount());
+            for (int i = 0; i < matrix.getSize(); i++) {
+                int entryCount = matrix.getRowEnd(i) - matrix.getRowStart(i);
+                if (entryCount == 0) {
+                    continue;
+                }
+                output.writeInt(i);
+                output.writeInt(entryCount);
+                for (int k = matrix.getRowStart(i); k < matrix.getRowEnd(i); k++) {
+                    output.writeInt(matrix.getColumn(k));
+                    output.writeDouble(matrix.getValue(k));
+                }
+            }
+            output.writeInt(END_MAGIC);
+            output.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Metrics.recordIo("io.save.views", startNanos, Files.size(target));
+    }
+
+    public static ViewCheckpoint load(String filename, TransactionLog log) {
+        if (!Files.isRegularFile(Paths.get(filename))) {
+            System.out.println("No existing view checkpoint found in " + filename + ". Rebuilding statistics and the transaction matrix from the transaction log.");
+            return empty();
+        }
+        try {
+            ViewCheckpoint checkpoint = read(filename);
+            if (checkpoint.position > log.size()) {
+                throw new IOException("View checkpoint " + filename + " covers " + checkpoint.position + " transactions but only " + log.size() + " were loaded.");
+            }
+            if (!Objects.equals(checkpoint.lastTransactionId, transactionIdAt(log, checkpoint.position))) {
+                throw new IOException("View checkpoint " + filename + " does not match the loaded transactions.");
+            }
+            return checkpoint;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Warning: " + e.getMessage() + " Rebuilding statistics and the transaction matrix from the transaction log.");
+            return empty();
+        }
+    }
+
+    private static ViewCheckpoint read(String filename) throws IOException {
+        long startNanos = System.nanoTime();
+        Path source = Paths.get(filename);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(source), 1 << 16))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException(filename + " is not a view checkpoint.");
+            }
+            short version = input.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported view checkpoint version " + version + " in " + filename);
+            }
+            int position = input.readInt();
+            long high = input.readLong();
+            long low = input.readLong();
+            String legacyId = readString(input);
+            TransactionId lastTransactionId = legacyId != null ? TransactionId.parse(legacyId) : high == 0 && low == 0 ? null : TransactionId.of(high, low);
+            TransactionStatistics statistics = TransactionStatistics.readState(input);
+            if (statistics.getTransactionCount() != position) {
+                throw new IOException("View checkpoint " + filename + " is corrupt.");
+            }
+            int size = input.readInt();
+            String[] accountNumbers = new String[size];
+            for (int i = 0; i < size; i++) {
+                accountNumbers[i] = readString(input);
+            }
+            int nonZeroCount = input.readInt();
+            int[] rowOffsets = new int[size + 1];
+            int[] columns = new int[nonZeroCount];
+            double[] values = new double[nonZeroCount];
+            int entries = 0;
+            int previousRow = -1;
+            while (entries < nonZeroCount) {
+                int row = input.readInt();
+                int entryCount = input.readInt();
+                if (row <= previousRow || row >= size || entryCount <= 0 || entryCount > nonZeroCount - entries) {
+                    throw new IOException("View checkpoint " + filename + " is corrupt.");
+                }
+                for (int i = previousRow + 1; i <= row; i++) {
+                    rowOffsets[i] = entries;
+                }
+                for (int k = 0; k < entryCount; k++, entries++) {
+                    columns[entries] = input.readInt();
+                    values[entries] = input.readDouble();
+                    if (columns[entries] < 0 || columns[entries] >= size) {
+                        throw new IOException("View checkpoint " + filename + " is corrupt.");
+                    }
+                }
+                previousRow = row;
+            }
+            for (int i = previousRow + 1; i <= size; i++) {
+                rowOffsets[i] = entries;
+            }
+            if (input.readInt() != END_MAGIC) {
+                throw new IOException("View checkpoint " + filename + " is truncated.");
+            }
+            Metrics.recordIo("io.load.views", startNanos, Files.size(source));
+            return new ViewCheckpoint(position, lastTransactionId, statistics, accountNumbers, new CsrMatrix(size, rowOffsets, columns, values));
+        } catch (EOFException e) {
+            throw new IOException("View checkpoint " + filename + " is truncated.", e);
+        }
+    }
+
+    private static TransactionId transactionIdAt(TransactionLog log, int position) {
+        if (position == 0) {
+            return null;
+        }
+        TransactionLog.Cursor cursor = log.cursor(position - 1, position);
+        return cursor.next() ? cursor.getId() : null;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}